@@ -0,0 +1,264 @@
+package io.github.cdimascio.agent;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import io.github.cdimascio.dotenv.DotenvEntry;
+import io.github.cdimascio.dotenv.DotenvxKeyring;
+import io.github.cdimascio.ecies.EciesCompression;
+import io.github.cdimascio.ecies.EciesEnvelope;
+import io.github.cdimascio.ecies.EciesPrivateKey;
+import org.jspecify.annotations.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local decryption agent: a daemon holding the prepared private key contexts of a {@link DotenvxKeyring},
+ * which serves batched decrypt requests from many JVMs over a Unix domain socket,
+ * so private keys are not needed in the environment of every process.
+ * The socket is bound in a directory accessible by the owner only, please run the agent as the same user as the clients.
+ *
+ * <pre>
+ * java -cp dotenvx-java.jar io.github.cdimascio.agent.DotenvxAgent /run/dotenvx/agent.sock /etc/dotenvx/.env.keys
+ * </pre>
+ *
+ * @author linux_china
+ * @see DotenvxAgentClient
+ */
+@SuppressWarnings("unused")
+public class DotenvxAgent implements Closeable {
+    /**
+     * format tag of envelope values, and clients send values without the `encrypted:` marker
+     */
+    private static final String ENVELOPE_FORMAT = "envelope:";
+    private static final Set<PosixFilePermission> PRIVATE_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private final Path socketPath;
+    private final DotenvxKeyring keyring;
+    private final ExecutorService executor;
+    private ServerSocketChannel serverChannel;
+
+    public DotenvxAgent(@NonNull Path socketPath, @NonNull DotenvxKeyring keyring) {
+        this.socketPath = socketPath;
+        this.keyring = keyring;
+        final AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "dotenvx-agent-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * bind the socket and serve requests on daemon threads.
+     * The socket directory is created with `rwx------` if missing, and an existing directory must be accessible by the owner only.
+     * A stale socket file left by a crashed agent is replaced, and any other file or a socket of a running agent is refused.
+     *
+     * @return this agent
+     * @throws IOException failed to bind the socket, the directory is not private, or the socket path is in use
+     */
+    public synchronized DotenvxAgent start() throws IOException {
+        if (serverChannel != null) {
+            return this;
+        }
+        checkPrivateDirectory(socketPath.toAbsolutePath().getParent());
+        deleteStaleSocket();
+        final ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.bind(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        serverChannel = channel;
+        executor.execute(this::acceptLoop);
+        return this;
+    }
+
+    /**
+     * stop the agent and delete the socket file bound by this agent
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        executor.shutdownNow();
+        if (serverChannel != null) {
+            serverChannel.close();
+            serverChannel = null;
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    /**
+     * other users can't connect to the socket in a private directory, so there's no window between bind and chmod
+     */
+    private static void checkPrivateDirectory(Path directory) throws IOException {
+        if (Files.notExists(directory)) {
+            try {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PRIVATE_DIRECTORY));
+            } catch (UnsupportedOperationException e) {
+                // not a POSIX file system
+                Files.createDirectories(directory);
+            }
+            return;
+        }
+        final PosixFileAttributeView view = Files.getFileAttributeView(directory, PosixFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        final Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+        if (!PRIVATE_DIRECTORY.containsAll(permissions)) {
+            throw new IOException("Socket directory " + directory + " must be accessible by the owner only, but it's "
+                    + PosixFilePermissions.toString(permissions));
+        }
+    }
+
+    /**
+     * delete the socket file if no agent is accepting connections on it
+     */
+    private void deleteStaleSocket() throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(socketPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!attributes.isOther()) {
+            throw new IOException("Socket path " + socketPath + " exists and is not a socket");
+        }
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+        } catch (ConnectException e) {
+            Files.deleteIfExists(socketPath);
+            return;
+        }
+        throw new IOException("Dotenvx agent is already listening on " + socketPath);
+    }
+
+    private void acceptLoop() {
+        final ServerSocketChannel channel = serverChannel;
+        while (channel != null && channel.isOpen()) {
+            try {
+                final SocketChannel client = channel.accept();
+                executor.execute(() -> serve(client));
+            } catch (IOException e) {
+                // closed
+                return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (client;
+             DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)))) {
+            int version;
+            while ((version = DotenvxAgentProtocol.readVersion(input)) != -1) {
+                if (version != DotenvxAgentProtocol.VERSION) {
+                    output.writeByte(DotenvxAgentProtocol.STATUS_ERROR);
+                    DotenvxAgentProtocol.writeString(output, "Unsupported protocol version: " + version);
+                    output.flush();
+                    return;
+                }
+                final String publicKeyHex = DotenvxAgentProtocol.readString(input);
+                final List<String> cipherTexts = DotenvxAgentProtocol.readStrings(input);
+                final EciesPrivateKey privateKey = keyring.get(publicKeyHex);
+                if (privateKey == null) {
+                    output.writeByte(DotenvxAgentProtocol.STATUS_ERROR);
+                    DotenvxAgentProtocol.writeString(output, "No private key for public key: " + publicKeyHex);
+                } else {
+                    final List<String> plainTexts = new ArrayList<>(cipherTexts.size());
+                    String error = null;
+                    for (String cipherText : cipherTexts) {
+                        try {
+                            if (cipherText.startsWith(ENVELOPE_FORMAT)) {
+                                plainTexts.add(EciesEnvelope.open(cipherText.substring(ENVELOPE_FORMAT.length()), privateKey));
+                            } else if (cipherText.startsWith(EciesCompression.COMPRESSED_FORMAT)) {
+                                plainTexts.add(EciesCompression.decryptCompressed(privateKey, cipherText.substring(EciesCompression.COMPRESSED_FORMAT.length())));
+                            } else {
+                                plainTexts.add(privateKey.decrypt(cipherText));
+                            }
+                        } catch (Exception e) {
+                            error = "Failed to decrypt item: " + cipherText;
+                            break;
+                        }
+                    }
+                    if (error == null) {
+                        output.writeByte(DotenvxAgentProtocol.STATUS_OK);
+                        DotenvxAgentProtocol.writeStrings(output, plainTexts);
+                    } else {
+                        output.writeByte(DotenvxAgentProtocol.STATUS_ERROR);
+                        DotenvxAgentProtocol.writeString(output, error);
+                    }
+                }
+                output.flush();
+            }
+        } catch (IOException ignore) {
+            // client disconnected or malformed request
+        }
+    }
+
+    /**
+     * run the agent: `DotenvxAgent socket-path [keys-file...]`, and private keys are loaded from `DOTENV_PRIVATE_KEY*`
+     * entries of the keys files, such as `.env.keys`, and environment variables.
+     *
+     * @param args socket path and keys files
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: DotenvxAgent <socket-path> [keys-file...]");
+            System.exit(1);
+        }
+        final DotenvxKeyring keyring = new DotenvxKeyring();
+        for (int i = 1; i < args.length; i++) {
+            final Path keysFile = Paths.get(args[i]).toAbsolutePath();
+            final Dotenv keys = Dotenv.configure()
+                    .directory(keysFile.getParent().toString())
+                    .filename(keysFile.getFileName().toString())
+                    .load();
+            for (DotenvEntry entry : keys.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE)) {
+                if (entry.getKey().startsWith("DOTENV_PRIVATE_KEY") && !entry.getValue().isEmpty()) {
+                    keyring.add(entry.getValue());
+                }
+            }
+        }
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            if (entry.getKey().startsWith("DOTENV_PRIVATE_KEY") && !entry.getValue().isEmpty()) {
+                keyring.add(entry.getValue());
+            }
+        }
+        final DotenvxAgent agent = new DotenvxAgent(Paths.get(args[0]), keyring).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                agent.close();
+            } catch (IOException ignore) {
+
+            }
+        }));
+        System.out.println("dotenvx agent is listening on " + args[0] + " with " + keyring.size() + " key(s)");
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.cdimascio.agent;
+
+import io.github.cdimascio.dotenv.DotenvException;
+import org.jspecify.annotations.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client of the local decryption agent, and all ciphertexts of a file are decrypted in one round-trip.
+ * The client is stateless and thread-safe, and every batch uses its own connection.
+ * A connection is closed if the agent doesn't accept it within the connect timeout,
+ * or doesn't reply within the read timeout, so a hung agent can't block the loading thread.
+ *
+ * @author linux_china
+ * @see DotenvxAgent
+ */
+public class DotenvxAgentClient {
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+    private final Path socketPath;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    public DotenvxAgentClient(@NonNull Path socketPath) {
+        this(socketPath, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    public DotenvxAgentClient(@NonNull Path socketPath, @NonNull Duration connectTimeout, @NonNull Duration readTimeout) {
+        this.socketPath = socketPath;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * decrypt the ciphertexts with the private key of the public key held by the agent
+     *
+     * @param publicKeyHex public key of the file
+     * @param cipherTexts  ciphertexts in base64 without `encrypted:` prefix
+     * @return plaintexts in the same order
+     * @throws DotenvException agent not available, timed out, or failed to decrypt
+     */
+    public List<String> decrypt(@NonNull String publicKeyHex, @NonNull List<String> cipherTexts) throws DotenvException {
+        final AtomicBoolean timedOut = new AtomicBoolean();
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            ScheduledFuture<?> timeout = closeAfter(channel, connectTimeout, timedOut);
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socketPath));
+            } finally {
+                timeout.cancel(false);
+            }
+            timeout = closeAfter(channel, readTimeout, timedOut);
+            try {
+                final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                output.writeInt(DotenvxAgentProtocol.VERSION);
+                DotenvxAgentProtocol.writeString(output, publicKeyHex);
+                DotenvxAgentProtocol.writeStrings(output, cipherTexts);
+                output.flush();
+                final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                final byte status = input.readByte();
+                if (status != DotenvxAgentProtocol.STATUS_OK) {
+                    throw new DotenvException("Dotenvx agent error: " + DotenvxAgentProtocol.readString(input));
+                }
+                final List<String> plainTexts = DotenvxAgentProtocol.readStrings(input);
+                if (plainTexts.size() != cipherTexts.size()) {
+                    throw new DotenvException("Dotenvx agent returned " + plainTexts.size() + " values for " + cipherTexts.size() + " ciphertexts");
+                }
+                return plainTexts;
+            } finally {
+                timeout.cancel(false);
+            }
+        } catch (IOException e) {
+            if (timedOut.get()) {
+                throw new DotenvException("Dotenvx agent " + socketPath + " timed out");
+            }
+            throw new DotenvException("Failed to connect dotenvx agent " + socketPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * close the channel after the timeout, and the blocked connect, read or write fails with an IOException
+     */
+    private static ScheduledFuture<?> closeAfter(SocketChannel channel, Duration timeout, AtomicBoolean timedOut) {
+        return TimeoutScheduler.SCHEDULER.schedule(() -> {
+            timedOut.set(true);
+            try {
+                channel.close();
+            } catch (IOException ignore) {
+
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static final class TimeoutScheduler {
+        private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                final Thread thread = new Thread(runnable, "dotenvx-agent-client-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
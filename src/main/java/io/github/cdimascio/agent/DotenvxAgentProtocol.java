@@ -0,0 +1,77 @@
+package io.github.cdimascio.agent;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire format of the decryption agent, and all integers are big-endian:
+ * <pre>
+ * request:  int version | string publicKeyHex | int count | string ciphertext * count
+ * response: byte status | status OK: int count | string plaintext * count, status ERROR: string message
+ * string:   int length | UTF-8 bytes
+ * </pre>
+ * A connection can send many requests, and the agent closes it on EOF.
+ *
+ * @author linux_china
+ */
+final class DotenvxAgentProtocol {
+    static final int VERSION = 1;
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+    private static final int MAX_STRING_LENGTH = 64 * 1024 * 1024;
+    private static final int MAX_BATCH_SIZE = 1024 * 1024;
+
+    private DotenvxAgentProtocol() {
+    }
+
+    static void writeString(DataOutputStream output, String text) throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeStrings(DataOutputStream output, List<String> texts) throws IOException {
+        output.writeInt(texts.size());
+        for (String text : texts) {
+            writeString(output, text);
+        }
+    }
+
+    static List<String> readStrings(DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0 || count > MAX_BATCH_SIZE) {
+            throw new IOException("Invalid batch size: " + count);
+        }
+        final List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            texts.add(readString(input));
+        }
+        return texts;
+    }
+
+    /**
+     * read the version of the next request, -1 on EOF
+     */
+    static int readVersion(DataInputStream input) throws IOException {
+        try {
+            return input.readInt();
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.cdimascio.crypto;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.Provider;
+import java.security.Security;
+
+/**
+ * Lazy BouncyCastle provider shared by the secp256k1 and ECIES classes: the provider is created on first use,
+ * and it's not registered globally by {@link Security#addProvider(Provider)}.
+ * A provider registered by the application is reused.
+ *
+ * @author linux_china
+ */
+public final class BouncyCastleProviderHolder {
+
+    private BouncyCastleProviderHolder() {
+    }
+
+    /**
+     * get the BouncyCastle provider
+     *
+     * @return provider
+     */
+    public static Provider provider() {
+        return Holder.PROVIDER;
+    }
+
+    private static final class Holder {
+        private static final Provider PROVIDER = createProvider();
+
+        private static Provider createProvider() {
+            final Provider registered = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+            return registered != null ? registered : new BouncyCastleProvider();
+        }
+    }
+}
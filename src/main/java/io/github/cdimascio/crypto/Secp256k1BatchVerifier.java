@@ -0,0 +1,103 @@
+package io.github.cdimascio.crypto;
+
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.jcajce.provider.asymmetric.util.ECUtil;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.math.BigInteger;
+import java.security.InvalidKeyException;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * secp256k1 batch verifier for SHA256withECDSA signatures from one signer, such as signed config bundles.
+ * The public key is parsed once and its point precomputation is shared by all verifications, and the verifier is thread-safe.
+ *
+ * @author linux_china
+ */
+public class Secp256k1BatchVerifier {
+    private final ECPublicKeyParameters publicKeyParameters;
+
+    /**
+     * create batch verifier with signer's public key
+     *
+     * @param compressedPublicKeyHex compressed public key in hex
+     * @throws Exception exception
+     */
+    public Secp256k1BatchVerifier(String compressedPublicKeyHex) throws Exception {
+        this(Secp256k1KeyParser.parseSecp256k1CompressedPublicKey(Hex.decode(compressedPublicKeyHex)));
+    }
+
+    /**
+     * create batch verifier with signer's public key
+     *
+     * @param publicKey public key
+     * @throws InvalidKeyException invalid key
+     */
+    public Secp256k1BatchVerifier(PublicKey publicKey) throws InvalidKeyException {
+        ECPublicKeyParameters parameters = (ECPublicKeyParameters) ECUtil.generatePublicKeyParameter(publicKey);
+        // mark public key point as basepoint to keep the wider precomputation table on it for all verifications
+        WNafUtil.configureBasepoint(parameters.getQ());
+        this.publicKeyParameters = parameters;
+    }
+
+    /**
+     * verify signature with SHA256withECDSA
+     *
+     * @param data           data
+     * @param signatureBytes DER encoded signature bytes
+     * @return verified result, and false for malformed signature
+     */
+    public boolean verify(byte[] data, byte[] signatureBytes) {
+        final BigInteger[] rs = decodeSignature(signatureBytes);
+        if (rs == null) {
+            return false;
+        }
+        SHA256Digest digest = new SHA256Digest();
+        digest.update(data, 0, data.length);
+        byte[] hash = new byte[digest.getDigestSize()];
+        digest.doFinal(hash, 0);
+        ECDSASigner signer = new ECDSASigner();
+        signer.init(false, publicKeyParameters);
+        return signer.verifySignature(hash, rs[0], rs[1]);
+    }
+
+    /**
+     * verify signatures in parallel
+     *
+     * @param payloads   payload list
+     * @param signatures DER encoded signature list, same order with payloads
+     * @return verified results, same order with payloads
+     */
+    public boolean[] verifyAll(List<byte[]> payloads, List<byte[]> signatures) {
+        if (payloads.size() != signatures.size()) {
+            throw new IllegalArgumentException("Payloads and signatures size mismatch: " + payloads.size() + " != " + signatures.size());
+        }
+        final boolean[] results = new boolean[payloads.size()];
+        IntStream.range(0, results.length)
+                .parallel()
+                .forEach(i -> results[i] = verify(payloads.get(i), signatures.get(i)));
+        return results;
+    }
+
+    private static BigInteger[] decodeSignature(byte[] signatureBytes) {
+        try {
+            ASN1Sequence sequence = ASN1Sequence.getInstance(signatureBytes);
+            if (sequence.size() != 2) {
+                return null;
+            }
+            return new BigInteger[]{
+                    ASN1Integer.getInstance(sequence.getObjectAt(0)).getValue(),
+                    ASN1Integer.getInstance(sequence.getObjectAt(1)).getValue()
+            };
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -3,24 +3,48 @@ package io.github.cdimascio.crypto;
 import org.bouncycastle.asn1.sec.SECNamedCurves;
 import org.bouncycastle.asn1.x9.X9ECParameters;
 import org.bouncycastle.jce.ECNamedCurveTable;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.jce.spec.ECParameterSpec;
 import org.bouncycastle.jce.spec.ECPrivateKeySpec;
 import org.bouncycastle.jce.spec.ECPublicKeySpec;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
 
 import java.math.BigInteger;
 import java.security.KeyFactory;
-import java.security.Security;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Secp256k1KeyParser {
-    static {
-        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
-            Security.addProvider(new BouncyCastleProvider());
+    private static final int PUBLIC_KEY_CACHE_SIZE = 256;
+    private static final X9ECParameters X9_EC_PARAMETERS = SECNamedCurves.getByName("secp256k1");
+    private static final ECParameterSpec EC_PARAMETER_SPEC = new ECParameterSpec(
+            X9_EC_PARAMETERS.getCurve(),
+            X9_EC_PARAMETERS.getG(),
+            X9_EC_PARAMETERS.getN(),
+            X9_EC_PARAMETERS.getH()
+    );
+    private static final Map<String, ECPublicKey> PUBLIC_KEY_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * parse secp256k1 public key in hex, and the parsed key is cached for later calls
+     *
+     * @param compressedPublicKeyHex compressed public key in hex
+     * @return public key
+     * @throws Exception exception
+     */
+    public static ECPublicKey getCachedCompressedPublicKey(String compressedPublicKeyHex) throws Exception {
+        ECPublicKey publicKey = PUBLIC_KEY_CACHE.get(compressedPublicKeyHex);
+        if (publicKey == null) {
+            publicKey = parseSecp256k1CompressedPublicKey(Hex.decode(compressedPublicKeyHex));
+            if (PUBLIC_KEY_CACHE.size() >= PUBLIC_KEY_CACHE_SIZE) {
+                PUBLIC_KEY_CACHE.clear();
+            }
+            PUBLIC_KEY_CACHE.put(compressedPublicKeyHex, publicKey);
         }
+        return publicKey;
     }
 
     /**
@@ -31,20 +55,12 @@ public class Secp256k1KeyParser {
      * @throws Exception exception
      */
     public static ECPublicKey parseSecp256k1CompressedPublicKey(byte[] compressedPublicKeyBytes) throws Exception {
-        // 1. Retrieve the Curve Parameters
-        X9ECParameters x9ECParameters = SECNamedCurves.getByName("secp256k1");
-        ECCurve curve = x9ECParameters.getCurve();
-        // 2. Decode the Compressed Point
+        // 1. Decode the Compressed Point
+        ECCurve curve = X9_EC_PARAMETERS.getCurve();
         ECPoint ecPoint = curve.decodePoint(compressedPublicKeyBytes);
-        // 3. Construct the Public Key
-        ECParameterSpec ecParameterSpec = new ECParameterSpec(
-                x9ECParameters.getCurve(),
-                x9ECParameters.getG(),
-                x9ECParameters.getN(),
-                x9ECParameters.getH()
-        );
-        ECPublicKeySpec pubSpec = new ECPublicKeySpec(ecPoint, ecParameterSpec);
-        KeyFactory keyFactory = KeyFactory.getInstance("EC", BouncyCastleProvider.PROVIDER_NAME);
+        // 2. Construct the Public Key
+        ECPublicKeySpec pubSpec = new ECPublicKeySpec(ecPoint, EC_PARAMETER_SPEC);
+        KeyFactory keyFactory = KeyFactory.getInstance("EC", BouncyCastleProviderHolder.provider());
         return (ECPublicKey) keyFactory.generatePublic(pubSpec);
     }
 
@@ -63,7 +79,7 @@ public class Secp256k1KeyParser {
         // Create an ECPrivateKeySpec
         ECPrivateKeySpec privateKeySpec = new ECPrivateKeySpec(privateKeyValue, ecSpec);
         // Get a KeyFactory for EC
-        KeyFactory keyFactory = KeyFactory.getInstance("EC", BouncyCastleProvider.PROVIDER_NAME);
+        KeyFactory keyFactory = KeyFactory.getInstance("EC", BouncyCastleProviderHolder.provider());
         // Generate the PrivateKey object
         return (ECPrivateKey) keyFactory.generatePrivate(privateKeySpec);
     }
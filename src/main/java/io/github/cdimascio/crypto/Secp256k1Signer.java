@@ -1,7 +1,7 @@
 package io.github.cdimascio.crypto;
 
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
-
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.*;
 
 
@@ -9,11 +9,15 @@ import java.security.*;
  * secp256k1 signer
  */
 public class Secp256k1Signer {
-    static {
-        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
-            Security.addProvider(new BouncyCastleProvider());
+    private static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(SIGNATURE_ALGORITHM, BouncyCastleProviderHolder.provider());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to create " + SIGNATURE_ALGORITHM + " signature", e);
         }
-    }
+    });
 
     /**
      * sign data with SHA256withECDSA
@@ -24,12 +28,27 @@ public class Secp256k1Signer {
      */
     public static byte[] signData(byte[] data, PrivateKey privateKey)
             throws NoSuchAlgorithmException, NoSuchProviderException, InvalidKeyException, SignatureException {
-        Signature signature = Signature.getInstance("SHA256withECDSA", BouncyCastleProvider.PROVIDER_NAME);
+        Signature signature = SIGNATURE.get();
         signature.initSign(privateKey);
         signature.update(data);
         return signature.sign();
     }
 
+    /**
+     * sign data from the input stream with SHA256withECDSA, and the data is streamed through the digest without buffering
+     *
+     * @param input      data input stream, not closed by this method
+     * @param privateKey private key
+     * @return signature bytes
+     */
+    public static byte[] signData(InputStream input, PrivateKey privateKey)
+            throws IOException, InvalidKeyException, SignatureException {
+        Signature signature = SIGNATURE.get();
+        signature.initSign(privateKey);
+        update(signature, input);
+        return signature.sign();
+    }
+
     /**
      * verify signature with  with SHA256withECDSA
      *
@@ -40,9 +59,33 @@ public class Secp256k1Signer {
      */
     public static boolean verifySignature(byte[] data, byte[] signatureBytes, PublicKey publicKey)
             throws NoSuchAlgorithmException, NoSuchProviderException, InvalidKeyException, SignatureException {
-        Signature signature = Signature.getInstance("SHA256withECDSA", BouncyCastleProvider.PROVIDER_NAME);
+        Signature signature = SIGNATURE.get();
         signature.initVerify(publicKey);
         signature.update(data);
         return signature.verify(signatureBytes);
     }
+
+    /**
+     * verify signature with SHA256withECDSA, and the data is streamed through the digest without buffering
+     *
+     * @param input          data input stream, not closed by this method
+     * @param signatureBytes signature bytes
+     * @param publicKey      public key
+     * @return verified result
+     */
+    public static boolean verifySignature(InputStream input, byte[] signatureBytes, PublicKey publicKey)
+            throws IOException, InvalidKeyException, SignatureException {
+        Signature signature = SIGNATURE.get();
+        signature.initVerify(publicKey);
+        update(signature, input);
+        return signature.verify(signatureBytes);
+    }
+
+    private static void update(Signature signature, InputStream input) throws IOException, SignatureException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int len;
+        while ((len = input.read(buffer)) != -1) {
+            signature.update(buffer, 0, len);
+        }
+    }
 }
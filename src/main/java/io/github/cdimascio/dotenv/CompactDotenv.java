@@ -0,0 +1,123 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact and immutable {@link Dotenv} for many instances per JVM: file entries are overlaid on the shared read-only
+ * {@link System#getenv()} view instead of a copy of the process environment, keys are interned in the JVM string table
+ * and shared by all instances, and entries are kept in sorted key and value arrays with binary search lookups.
+ * The behavior is the same as the default implementation: environment variables win over file entries,
+ * and the last entry wins for duplicated keys.
+ *
+ * @author linux_china
+ */
+final class CompactDotenv implements Dotenv {
+    private final String[] keys;
+    private final String[] values;
+
+    private CompactDotenv(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    static CompactDotenv of(@NonNull List<DotenvEntry> entries) {
+        final Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // stable sort by key, so the last entry of the duplicated keys is the last one in the run
+        Arrays.sort(order, (a, b) -> entries.get(a).getKey().compareTo(entries.get(b).getKey()));
+        String[] keys = new String[order.length];
+        String[] values = new String[order.length];
+        int size = 0;
+        for (Integer index : order) {
+            final DotenvEntry entry = entries.get(index);
+            if (size > 0 && keys[size - 1].equals(entry.getKey())) {
+                values[size - 1] = entry.getValue();
+            } else {
+                keys[size] = entry.getKey().intern();
+                values[size] = entry.getValue();
+                size++;
+            }
+        }
+        if (size < keys.length) {
+            keys = Arrays.copyOf(keys, size);
+            values = Arrays.copyOf(values, size);
+        }
+        return new CompactDotenv(keys, values);
+    }
+
+    @Override
+    public Set<DotenvEntry> entries() {
+        final Map<String, String> environment = System.getenv();
+        final Set<DotenvEntry> entries = new HashSet<>((int) ((environment.size() + keys.length) / 0.75f) + 1);
+        for (int i = 0; i < keys.length; i++) {
+            if (!environment.containsKey(keys[i])) {
+                entries.add(new DotenvEntry(keys[i], values[i]));
+            }
+        }
+        environment.forEach((key, value) -> entries.add(new DotenvEntry(key, value)));
+        return Collections.unmodifiableSet(entries);
+    }
+
+    @Override
+    public Set<DotenvEntry> entries(Filter filter) {
+        if (filter == null) {
+            return entries();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<DotenvEntry> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public DotenvEntry next() {
+                        if (index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        final DotenvEntry entry = new DotenvEntry(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public String get(String key) {
+        final String value = System.getenv(key);
+        if (value != null) {
+            return value;
+        }
+        final int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public String get(String key, String defaultValue) {
+        final String value = get(key);
+        return value == null ? defaultValue : value;
+    }
+}
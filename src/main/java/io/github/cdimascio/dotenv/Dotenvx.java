@@ -2,6 +2,8 @@ package io.github.cdimascio.dotenv;
 
 import org.jspecify.annotations.NonNull;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Creates and configures a new Dotenv instance with dotenvx support.
  */
@@ -20,4 +22,24 @@ public interface Dotenvx {
     static Dotenv load() {
         return new DotenvxBuilder().load();
     }
+
+    /**
+     * Pre-warms ECIES, JSON serializers and config binding with synthetic data on a background daemon thread,
+     * call it at startup to remove the latency spike of the first encrypted requests.
+     *
+     * @return future completed when the pre-warm is done, and cancelling it doesn't stop the shared pre-warm
+     */
+    static CompletableFuture<Void> prewarm() {
+        return DotenvxPrewarm.start(DotenvxPrewarm.DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Pre-warms with the iterations of every hot path, see {@link #prewarm()}
+     *
+     * @param iterations iterations of every hot path
+     * @return future completed when the pre-warm is done
+     */
+    static CompletableFuture<Void> prewarm(int iterations) {
+        return DotenvxPrewarm.start(iterations);
+    }
 }
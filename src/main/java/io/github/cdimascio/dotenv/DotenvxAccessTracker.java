@@ -0,0 +1,263 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-key access tracker to find unused secrets: the loaded {@link Dotenv}, {@link Properties}, map or config proxy is wrapped,
+ * and every read of a key is counted with a striped {@link LongAdder} and first/last access timestamps.
+ * Keys declared in the loaded file are registered with zero count, so {@link #unusedKeys()} lists the keys nobody reads,
+ * and environment variables merged into .env entries are not registered.
+ * Records and POJOs bound by {@link DotenvxLoader} read all their keys at bind time, so their fields are never reported as unused.
+ * The tracker is thread-safe and can be shared by builders and {@link DotenvxLoader}.
+ *
+ * <pre>{@code
+ * DotenvxAccessTracker tracker = new DotenvxAccessTracker();
+ * Dotenv dotenv = Dotenvx.configure().trackAccess(tracker).load();
+ * ...
+ * Set<String> unused = tracker.unusedKeys();
+ * }</pre>
+ *
+ * @author linux_china
+ */
+@SuppressWarnings("unused")
+public class DotenvxAccessTracker {
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * register keys with zero count
+     *
+     * @param keys loaded keys
+     */
+    public void register(@NonNull Collection<String> keys) {
+        for (String key : keys) {
+            counters.computeIfAbsent(key, k -> new Counter());
+        }
+    }
+
+    /**
+     * record one access of the key
+     *
+     * @param key key name
+     */
+    public void recordAccess(@NonNull String key) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new Counter());
+        }
+        counter.record(System.currentTimeMillis());
+    }
+
+    /**
+     * snapshot of access statistics, sorted by key
+     *
+     * @return key to access statistics
+     */
+    public Map<String, KeyAccess> snapshot() {
+        final Map<String, KeyAccess> snapshot = new TreeMap<>();
+        counters.forEach((key, counter) -> snapshot.put(key, counter.toKeyAccess(key)));
+        return snapshot;
+    }
+
+    /**
+     * snapshot of access statistics as a list sorted by key, and it's easy to export as JSON or CSV
+     *
+     * @return access statistics
+     */
+    public List<KeyAccess> export() {
+        return List.copyOf(snapshot().values());
+    }
+
+    /**
+     * registered keys that are never read
+     *
+     * @return unused keys sorted by name
+     */
+    public Set<String> unusedKeys() {
+        final Set<String> keys = new TreeSet<>();
+        counters.forEach((key, counter) -> {
+            if (counter.count.sum() == 0) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    /**
+     * clear all access statistics and registered keys
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    /**
+     * wrap the dotenv to track {@link Dotenv#get(String)} calls, and {@link Dotenv#entries()} is not tracked
+     *
+     * @param dotenv loaded dotenv
+     * @return tracked dotenv
+     */
+    public Dotenv track(@NonNull Dotenv dotenv) {
+        final Set<DotenvEntry> entries = dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE);
+        register(entries.stream().map(DotenvEntry::getKey).toList());
+        return new TrackedDotenv(dotenv, this);
+    }
+
+    /**
+     * copy the properties to a new properties object which tracks {@link Properties#getProperty(String)} and {@link Properties#get(Object)} calls
+     *
+     * @param properties loaded properties
+     * @return tracked properties
+     */
+    public Properties track(@NonNull Properties properties) {
+        register(properties.stringPropertyNames());
+        final Properties trackedProperties = new TrackedProperties(this);
+        trackedProperties.putAll(properties);
+        return trackedProperties;
+    }
+
+    /**
+     * wrap the map to track {@link Map#get(Object)} calls, and the returned map is unmodifiable
+     *
+     * @param entries loaded entries
+     * @return tracked map
+     */
+    public Map<String, String> track(@NonNull Map<String, String> entries) {
+        return track(entries, entries.keySet());
+    }
+
+    /**
+     * wrap the map to track {@link Map#get(Object)} calls, and only the declared keys are registered
+     *
+     * @param entries      loaded entries, including environment variables
+     * @param declaredKeys keys declared in the config file
+     * @return tracked map
+     */
+    Map<String, String> track(@NonNull Map<String, String> entries, @NonNull Collection<String> declaredKeys) {
+        register(declaredKeys);
+        return new TrackedMap(entries, this);
+    }
+
+    /**
+     * access statistics of a key
+     *
+     * @param key               key name
+     * @param count             access count
+     * @param firstAccessMillis first access time in epoch milliseconds, 0 if never accessed
+     * @param lastAccessMillis  last access time in epoch milliseconds, 0 if never accessed
+     */
+    public record KeyAccess(String key, long count, long firstAccessMillis, long lastAccessMillis) {
+    }
+
+    private static final class Counter {
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong firstAccess = new AtomicLong();
+        private volatile long lastAccess;
+
+        void record(long now) {
+            count.increment();
+            if (firstAccess.get() == 0) {
+                firstAccess.compareAndSet(0, now);
+            }
+            lastAccess = now;
+        }
+
+        KeyAccess toKeyAccess(String key) {
+            return new KeyAccess(key, count.sum(), firstAccess.get(), lastAccess);
+        }
+    }
+
+    private record TrackedDotenv(Dotenv delegate, DotenvxAccessTracker tracker) implements Dotenv {
+
+        @Override
+        public Set<DotenvEntry> entries() {
+            return delegate.entries();
+        }
+
+        @Override
+        public Set<DotenvEntry> entries(Filter filter) {
+            return delegate.entries(filter);
+        }
+
+        @Override
+        public String get(String key) {
+            tracker.recordAccess(key);
+            return delegate.get(key);
+        }
+
+        @Override
+        public String get(String key, String defaultValue) {
+            tracker.recordAccess(key);
+            return delegate.get(key, defaultValue);
+        }
+    }
+
+    private static final class TrackedProperties extends Properties {
+        private static final long serialVersionUID = 1L;
+        private final transient DotenvxAccessTracker tracker;
+
+        TrackedProperties(DotenvxAccessTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        @Override
+        public String getProperty(String key) {
+            tracker.recordAccess(key);
+            return super.getProperty(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (key instanceof String name) {
+                tracker.recordAccess(name);
+            }
+            return super.get(key);
+        }
+    }
+
+    private static final class TrackedMap extends AbstractMap<String, String> {
+        private final Map<String, String> delegate;
+        private final DotenvxAccessTracker tracker;
+
+        TrackedMap(Map<String, String> delegate, DotenvxAccessTracker tracker) {
+            this.delegate = delegate;
+            this.tracker = tracker;
+        }
+
+        @Override
+        @Nullable
+        public String get(Object key) {
+            if (key instanceof String name) {
+                tracker.recordAccess(name);
+            }
+            return delegate.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return delegate.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return Collections.unmodifiableMap(delegate).entrySet();
+        }
+    }
+}
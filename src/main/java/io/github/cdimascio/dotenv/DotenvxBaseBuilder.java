@@ -1,9 +1,14 @@
 package io.github.cdimascio.dotenv;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cdimascio.crypto.Secp256k1KeyParser;
+import io.github.cdimascio.crypto.Secp256k1Signer;
+import org.bouncycastle.util.encoders.Base64;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -12,14 +17,24 @@ import java.util.Map;
 
 @SuppressWarnings("unchecked")
 public interface DotenvxBaseBuilder {
-    ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * shared ObjectMapper for the global key store, created on first call
+     *
+     * @return object mapper
+     * @deprecated replaced the eager `objectMapper` field, and use your own ObjectMapper instead
+     */
+    @Deprecated
+    static ObjectMapper objectMapper() {
+        return ObjectMapperHolder.OBJECT_MAPPER;
+    }
 
     @Nullable
     default String getPrivateKeyFromGlobalStore(@NonNull String publicKeyHex) {
         final Path globalFileStore = Paths.get(System.getProperty("user.home"), ".dotenvx", ".env.keys.json");
         if (Files.exists(globalFileStore)) {
             try {
-                Map<String, Object> globalStore = objectMapper.readValue(globalFileStore.toFile(), Map.class);
+                Map<String, Object> globalStore = ObjectMapperHolder.OBJECT_MAPPER.readValue(globalFileStore.toFile(), Map.class);
                 if (globalStore.containsKey("version") && globalStore.containsKey("keys")) { // new file format
                     globalStore = (Map<String, Object>) globalStore.get("keys");
                 }
@@ -37,6 +52,48 @@ public interface DotenvxBaseBuilder {
         return null;
     }
 
+    /**
+     * verify the detached signature(SHA256withECDSA, base64) of the config file, and the content is streamed through the digest
+     *
+     * @param name               config file name for error message
+     * @param input              config file content
+     * @param signerPublicKeyHex signer's compressed public key in hex
+     * @param signatureBase64    detached signature in base64
+     * @throws DotenvException when signature is invalid
+     */
+    default void verifySignature(@NonNull String name, @NonNull InputStream input,
+                                 @NonNull String signerPublicKeyHex, @NonNull String signatureBase64) throws DotenvException {
+        boolean verified;
+        try {
+            verified = Secp256k1Signer.verifySignature(input, Base64.decode(signatureBase64.trim()),
+                    Secp256k1KeyParser.getCachedCompressedPublicKey(signerPublicKeyHex));
+        } catch (Exception e) {
+            throw new DotenvException("Failed to verify signature of " + name + ": " + e.getMessage());
+        }
+        if (!verified) {
+            throw new DotenvException("Invalid signature for " + name);
+        }
+    }
+
+    /**
+     * read the detached signature file, such as `.env.sig` or `application.properties.sig`
+     *
+     * @param signatureFile signature file
+     * @return signature in base64
+     * @throws DotenvException when signature file not found
+     */
+    @NonNull
+    default String readSignatureFile(@NonNull Path signatureFile) throws DotenvException {
+        if (!Files.exists(signatureFile)) {
+            throw new DotenvException("Signature file not found: " + signatureFile);
+        }
+        try {
+            return Files.readString(signatureFile, StandardCharsets.UTF_8).trim();
+        } catch (Exception e) {
+            throw new DotenvException("Failed to read signature file: " + signatureFile);
+        }
+    }
+
     @Nullable
     default String trimPrivateKey(@Nullable String privateKeyHex) {
         if (privateKeyHex != null && privateKeyHex.contains("{")) {
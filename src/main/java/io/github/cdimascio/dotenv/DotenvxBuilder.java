@@ -1,30 +1,56 @@
 package io.github.cdimascio.dotenv;
 
 
+import io.github.cdimascio.agent.DotenvxAgentClient;
 import io.github.cdimascio.dotenv.internal.DotenvParser;
 import io.github.cdimascio.dotenv.internal.DotenvReader;
-import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.ecies.EciesCompression;
+import io.github.cdimascio.ecies.EciesEnvelope;
+import io.github.cdimascio.ecies.EciesPrivateKey;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Builds and loads and {@link Dotenv} instance with dotenvx support.
+ * {@link #load()} doesn't change the configuration, so a configured builder can be shared and loaded by multiple threads.
+ * The builder itself is mutable and not synchronized: configure it in one thread and publish it safely, such as with a final field,
+ * and don't call the setters while other threads are loading.
  *
  * @see Dotenvx#configure()
  */
 @SuppressWarnings("unused")
 public class DotenvxBuilder extends DotenvBuilder implements DotenvxBaseBuilder {
+    private static final String CLASSPATH_PREFIX = "classpath:";
     private String privateKeyHex = null;
     private String filename = ".env";
     private String directoryPath = "./";
     private boolean systemProperties = false;
     private boolean throwIfMissing = true;
     private boolean throwIfMalformed = true;
+    private DotenvxKeyring keyring = null;
+    private String signerPublicKeyHex = null;
+    private String signatureBase64 = null;
+    private boolean expandVariables = false;
+    private DotenvxAccessTracker accessTracker = null;
+    private boolean compact = false;
+    private DotenvxAgentClient agentClient = null;
+    private Predicate<String> includeFilter = null;
+    private Predicate<String> excludeFilter = null;
 
     /**
      * Sets the directory containing the .env file.
@@ -89,47 +115,258 @@ public class DotenvxBuilder extends DotenvBuilder implements DotenvxBaseBuilder
         return this;
     }
 
+    /**
+     * set the keyring, and the private key is picked from the keyring by the public key of the file
+     * if no private key is set explicitly.
+     *
+     * @param keyring keyring shared by builders
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder keyring(DotenvxKeyring keyring) {
+        this.keyring = keyring;
+        return this;
+    }
+
+    /**
+     * Expands `${VAR}` and `${VAR:-default}` references in values, and a reference is resolved from the entries of the file,
+     * then from environment variables. Encrypted values are decrypted before expansion.
+     *
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder expandVariables() {
+        this.expandVariables = true;
+        return this;
+    }
+
+    /**
+     * Only loads the keys matching the filter, and filtered-out entries are never decrypted, retained or exported to system properties.
+     * Keys are included if they match any include filter.
+     *
+     * @param filter key filter, such as {@link DotenvxKeyFilter#prefix(String...)}
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder include(final Predicate<String> filter) {
+        this.includeFilter = includeFilter == null ? filter : includeFilter.or(filter);
+        return this;
+    }
+
+    /**
+     * Skips the keys matching the filter, see {@link #include(Predicate)}
+     *
+     * @param filter key filter, such as {@link DotenvxKeyFilter#glob(String...)}
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder exclude(final Predicate<String> filter) {
+        this.excludeFilter = excludeFilter == null ? filter : excludeFilter.or(filter);
+        return this;
+    }
+
+    /**
+     * Tracks {@link Dotenv#get(String)} reads of the loaded entries to find unused keys.
+     *
+     * @param accessTracker access tracker
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder trackAccess(DotenvxAccessTracker accessTracker) {
+        this.accessTracker = accessTracker;
+        return this;
+    }
+
+    /**
+     * Loads a compact and immutable {@link Dotenv}, which shares the process environment and interned keys with other instances,
+     * for services holding many Dotenv instances.
+     *
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder compact() {
+        this.compact = true;
+        return this;
+    }
+
+    /**
+     * Decrypts values with the local dotenvx agent over the Unix domain socket if no private key is set explicitly,
+     * and all encrypted values of the file are sent in one batch.
+     *
+     * @param socketPath socket path of the agent
+     * @return this {@link DotenvxBuilder}
+     * @see io.github.cdimascio.agent.DotenvxAgent
+     */
+    public DotenvxBuilder agent(final Path socketPath) {
+        this.agentClient = new DotenvxAgentClient(socketPath);
+        return this;
+    }
+
+    /**
+     * Decrypts values with the agent client, such as a client with custom connect and read timeouts.
+     *
+     * @param agentClient agent client
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder agent(final DotenvxAgentClient agentClient) {
+        this.agentClient = agentClient;
+        return this;
+    }
+
+    /**
+     * Verifies the detached signature of the .env file before loading, and the signature is read from the `.env.sig` file.
+     *
+     * @param signerPublicKeyHex signer's compressed public key in hexadecimal format
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder verifySignature(String signerPublicKeyHex) {
+        this.signerPublicKeyHex = signerPublicKeyHex;
+        return this;
+    }
+
+    /**
+     * Verifies the detached signature of the .env file before loading.
+     *
+     * @param signerPublicKeyHex signer's compressed public key in hexadecimal format
+     * @param signatureBase64    SHA256withECDSA signature of the .env file in base64
+     * @return this {@link DotenvxBuilder}
+     */
+    public DotenvxBuilder verifySignature(String signerPublicKeyHex, String signatureBase64) {
+        this.signerPublicKeyHex = signerPublicKeyHex;
+        this.signatureBase64 = signatureBase64;
+        return this;
+    }
+
     /**
      * Load the contents of .env into the virtual environment.
+     * The file is loaded from the classpath if the filename is prefixed with `classpath:`, such as `classpath:.env.prod`.
      *
      * @return a new {@link Dotenv} instance
      * @throws DotenvException when an error occurs
      */
     @NonNull
     public Dotenv load() throws DotenvException {
-        final DotenvParser parser = new DotenvParser(
-                new DotenvReader(directoryPath, filename),
-                throwIfMissing, throwIfMalformed);
-        List<DotenvEntry> entries = parser.parse();
-        String publicKeyHex = getPublicKeyHex(entries);
-        String profileName = null;
-        if (filename.contains(".env.")) {
-            profileName = filename.substring(filename.indexOf(".env.") + 5);
-        }
-        boolean isEncrypted = entries.stream()
-                .anyMatch(entry -> entry.getValue().startsWith("encrypted:"));
-        if (isEncrypted) {
-            String privateKey = getDotenvxPrivateKey(profileName, publicKeyHex);
-            if (privateKey == null || privateKey.isEmpty()) {
-                throw new DotenvException("No DOTENV_PRIVATE_KEY found in environment variables or .env.keys file.");
+        if (filename.startsWith(CLASSPATH_PREFIX)) {
+            final String resource = filename.substring(CLASSPATH_PREFIX.length());
+            try (InputStream input = getClass().getClassLoader().getResourceAsStream(resource)) {
+                if (input == null) {
+                    if (throwIfMissing) {
+                        throw new DotenvException("File not found in classpath: " + resource);
+                    }
+                    return load(new DotenvxContentReader(List.of()));
+                }
+                return load(input.readAllBytes());
+            } catch (IOException e) {
+                throw new DotenvException("Failed to load .env from classpath: " + resource);
             }
-            List<DotenvEntry> decryptedEntries = new ArrayList<>();
-            for (DotenvEntry entry : entries) {
-                if (entry.getValue().startsWith("encrypted:")) {
-                    final String encryptedText = entry.getValue().substring(10);
-                    decryptedEntries.add(new DotenvEntry(entry.getKey(), decryptItem(privateKey, encryptedText)));
-                } else {
-                    decryptedEntries.add(entry);
+        }
+        if (signerPublicKeyHex != null && !signerPublicKeyHex.isEmpty()) {
+            // the verified buffer is parsed, so the file can't be changed between verification and parsing
+            final byte[] content = readFileContent();
+            return content == null ? load(new DotenvxContentReader(List.of())) : load(content);
+        }
+        return load(new DotenvReader(directoryPath, filename));
+    }
+
+    /**
+     * Load .env content from memory, with the same parsing and decryption as {@link #load()}.
+     * The filename is only used for the profile name, such as `.env.prod`, and the private key lookup.
+     *
+     * @param content .env content in UTF-8
+     * @return a new {@link Dotenv} instance
+     * @throws DotenvException when an error occurs
+     */
+    @NonNull
+    public Dotenv load(byte[] content) throws DotenvException {
+        if (signerPublicKeyHex != null && !signerPublicKeyHex.isEmpty()) {
+            verifySignature(filename, new ByteArrayInputStream(content), signerPublicKeyHex, contentSignature());
+        }
+        return load(new DotenvxContentReader(new String(content, StandardCharsets.UTF_8)));
+    }
+
+    private String contentSignature() throws DotenvException {
+        if (signatureBase64 != null) {
+            return signatureBase64;
+        }
+        if (filename.startsWith(CLASSPATH_PREFIX)) {
+            final String resource = filename.substring(CLASSPATH_PREFIX.length()) + ".sig";
+            try (InputStream input = getClass().getClassLoader().getResourceAsStream(resource)) {
+                if (input == null) {
+                    throw new DotenvException("Signature file not found in classpath: " + resource);
                 }
+                return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new DotenvException("Failed to read signature from classpath: " + resource);
             }
-            entries = decryptedEntries;
         }
+        return readSignatureFile(Paths.get(directoryPath, filename + ".sig"));
+    }
+
+    /**
+     * Load .env content from memory, see {@link #load(byte[])}
+     *
+     * @param content .env content
+     * @return a new {@link Dotenv} instance
+     * @throws DotenvException when an error occurs
+     */
+    @NonNull
+    public Dotenv load(@NonNull CharSequence content) throws DotenvException {
+        if (signerPublicKeyHex != null && !signerPublicKeyHex.isEmpty()) {
+            return load(content.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return load(new DotenvxContentReader(content));
+    }
+
+    /**
+     * Load .env content from the input stream, see {@link #load(byte[])}, and the stream is not closed.
+     *
+     * @param input .env content in UTF-8
+     * @return a new {@link Dotenv} instance
+     * @throws DotenvException when an error occurs
+     */
+    @NonNull
+    public Dotenv load(@NonNull InputStream input) throws DotenvException {
+        try {
+            return load(input.readAllBytes());
+        } catch (IOException e) {
+            throw new DotenvException("Failed to read .env from input stream: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load .env content from the channel, see {@link #load(byte[])}, and the channel is not closed.
+     *
+     * @param channel .env content in UTF-8
+     * @return a new {@link Dotenv} instance
+     * @throws DotenvException when an error occurs
+     */
+    @NonNull
+    public Dotenv load(@NonNull ReadableByteChannel channel) throws DotenvException {
+        return load(Channels.newInputStream(channel));
+    }
+
+    private Dotenv load(DotenvReader reader) throws DotenvException {
+        final DotenvParser parser = new DotenvParser(reader, throwIfMissing, throwIfMalformed);
+        final DotenvxIndex index = DotenvxIndex.forEnv(filename).keyFilter(DotenvxKeyFilter.compose(includeFilter, excludeFilter))
+                .keepFilteredValues(expandVariables);
+        for (DotenvEntry entry : parser.parse()) {
+            index.add(entry.getKey(), entry.getValue());
+        }
+        if (expandVariables) {
+            index.expand(index.hasEncrypted() ? decryptor(index) : null);
+        } else if (index.hasEncrypted()) {
+            index.decrypt(decryptor(index));
+        }
+        final List<DotenvEntry> entries = index.toEntries();
         if (systemProperties) {
             entries.forEach(it -> System.setProperty(it.getKey(), it.getValue()));
         }
-        return new DotenvImpl(entries);
+        final Dotenv dotenv = compact ? CompactDotenv.of(entries) : new DotenvImpl(entries);
+        return accessTracker == null ? dotenv : accessTracker.track(dotenv);
     }
 
+    /**
+     * get the first public key of the entries
+     *
+     * @param entries entries
+     * @return public key in hex, null if not found
+     * @deprecated public keys are captured while parsing, and this method is not used by {@link #load()} any more
+     */
+    @Deprecated
     public String getPublicKeyHex(List<DotenvEntry> entries) {
         for (DotenvEntry entry : entries) {
             final String key = entry.getKey();
@@ -144,23 +381,84 @@ public class DotenvxBuilder extends DotenvBuilder implements DotenvxBaseBuilder
     public String getDotenvxPrivateKey(String profileName, String publicKeyHex) {
         if (this.privateKeyHex != null && !this.privateKeyHex.isEmpty()) {
             return this.privateKeyHex;
-        } else {
-            // load the private key from the global store: .env.keys.json
-            if (publicKeyHex != null && !publicKeyHex.isEmpty()) {
-                String privateKey = getPrivateKeyFromGlobalStore(publicKeyHex);
-                if (privateKey != null && !privateKey.isEmpty()) {
-                    this.privateKeyHex = privateKey;
-                    return this.privateKeyHex;
+        }
+        // load the private key from the global store: .env.keys.json
+        if (publicKeyHex != null && !publicKeyHex.isEmpty()) {
+            String privateKey = getPrivateKeyFromGlobalStore(publicKeyHex);
+            if (privateKey != null && !privateKey.isEmpty()) {
+                return privateKey;
+            }
+        }
+        return getPrivateKeyFromEnvOrPath(this.directoryPath, profileName);
+    }
+
+    /**
+     * read the .env file, or the classpath resource if the file doesn't exist
+     *
+     * @return file content, null if not found and missing file is ignored
+     */
+    @Nullable
+    private byte[] readFileContent() throws DotenvException {
+        final Path filePath = Paths.get(directoryPath, filename);
+        try (InputStream input = Files.exists(filePath) ? Files.newInputStream(filePath)
+                : getClass().getResourceAsStream("/" + filename)) {
+            if (input == null) {
+                if (throwIfMissing) {
+                    throw new DotenvException("File not found: " + filePath);
                 }
+                return null;
+            }
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new DotenvException("Failed to read file: " + filePath);
+        }
+    }
+
+    private EciesPrivateKey resolvePrivateKey(DotenvxIndex index) throws DotenvException {
+        if ((this.privateKeyHex == null || this.privateKeyHex.isEmpty()) && keyring != null) {
+            final EciesPrivateKey privateKey = keyring.get(index.publicKeyHex());
+            if (privateKey != null) {
+                return privateKey;
+            }
+        }
+        String privateKey = getDotenvxPrivateKey(index.profileName(), index.publicKeyHex());
+        if (privateKey == null || privateKey.isEmpty()) {
+            throw new DotenvException("No DOTENV_PRIVATE_KEY found in environment variables or .env.keys file.");
+        }
+        try {
+            return new EciesPrivateKey(privateKey);
+        } catch (Exception e) {
+            throw new DotenvException("Invalid DOTENV_PRIVATE_KEY: " + e.getMessage());
+        }
+    }
+
+    private UnaryOperator<String> decryptor(DotenvxIndex index) throws DotenvException {
+        if (agentClient != null && (this.privateKeyHex == null || this.privateKeyHex.isEmpty())) {
+            final String publicKeyHex = index.publicKeyHex();
+            if (publicKeyHex == null) {
+                throw new DotenvException("No DOTENV_PUBLIC_KEY found in " + filename + " for dotenvx agent.");
+            }
+            final List<String> encryptedTexts = index.encryptedTexts();
+            final List<String> plainTexts = agentClient.decrypt(publicKeyHex, encryptedTexts);
+            final Map<String, String> decrypted = new HashMap<>();
+            for (int i = 0; i < encryptedTexts.size(); i++) {
+                decrypted.put(encryptedTexts.get(i), plainTexts.get(i));
             }
-            this.privateKeyHex = getPrivateKeyFromEnvOrPath(this.directoryPath, profileName);
+            return decrypted::get;
         }
-        return this.privateKeyHex;
+        final EciesPrivateKey privateKey = resolvePrivateKey(index);
+        return encryptedText -> decryptItem(privateKey, encryptedText);
     }
 
-    private String decryptItem(String privateKeyHex, String item) throws DotenvException {
+    private String decryptItem(EciesPrivateKey privateKey, String item) throws DotenvException {
         try {
-            return Ecies.decrypt(privateKeyHex, item);
+            if (item.startsWith(DotenvxIndex.ENVELOPE_FORMAT)) {
+                return EciesEnvelope.open(item.substring(DotenvxIndex.ENVELOPE_FORMAT.length()), privateKey);
+            }
+            if (item.startsWith(DotenvxIndex.COMPRESSED_FORMAT)) {
+                return EciesCompression.decryptCompressed(privateKey, item.substring(DotenvxIndex.COMPRESSED_FORMAT.length()));
+            }
+            return privateKey.decrypt(item);
         } catch (Exception e) {
             throw new DotenvException("Failed to decrypt item: " + item);
         }
@@ -0,0 +1,147 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Binds records, POJOs and `Map<String, X>` sections, including concrete map types such as `HashMap`, from a {@link DotenvxKeyTrie}:
+ * a field or record component `poolSize` is bound from the `pool` and `size` path,
+ * so `DB_POOL_SIZE` and `db.pool.size` are both bound to `poolSize` of the nested `db` config.
+ *
+ * @author linux_china
+ */
+final class DotenvxConfigBinder {
+
+    private DotenvxConfigBinder() {
+    }
+
+    /**
+     * bind the trie to the type
+     *
+     * @param trie trie of the config section, null if the section is missing
+     * @param type target type
+     * @return bound value, null if the section is missing
+     * @throws Exception failed to create the instance or convert the value
+     */
+    @Nullable
+    static Object bind(@Nullable DotenvxKeyTrie trie, Type type) throws Exception {
+        if (trie == null) {
+            return null;
+        }
+        final Class<?> clazz = rawClass(type);
+        if (isScalar(clazz)) {
+            final String value = trie.value();
+            return value == null ? null : convertValue(value, clazz);
+        }
+        if (Map.class.isAssignableFrom(clazz)) {
+            return toMapType(bindMap(trie, type), clazz);
+        }
+        if (clazz.isRecord()) {
+            final RecordComponent[] components = clazz.getRecordComponents();
+            final Class<?>[] componentTypes = new Class<?>[components.length];
+            final Object[] args = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                componentTypes[i] = components[i].getType();
+                args[i] = bind(trie.subTrie(DotenvxKeyTrie.nameSegments(components[i].getName())), components[i].getGenericType());
+                if (args[i] == null && componentTypes[i].isPrimitive()) {
+                    args[i] = defaultValue(componentTypes[i]);
+                }
+            }
+            return clazz.getDeclaredConstructor(componentTypes).newInstance(args);
+        }
+        final Object instance = clazz.getDeclaredConstructor().newInstance();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            final Object value = bind(trie.subTrie(DotenvxKeyTrie.nameSegments(field.getName())), field.getGenericType());
+            if (value != null) {
+                field.setAccessible(true);
+                field.set(instance, value);
+            }
+        }
+        return instance;
+    }
+
+    private static Map<String, Object> bindMap(DotenvxKeyTrie trie, Type type) throws Exception {
+        final Type valueType = type instanceof ParameterizedType parameterizedType
+                ? parameterizedType.getActualTypeArguments()[1] : String.class;
+        final Class<?> valueClass = rawClass(valueType);
+        final Map<String, Object> result = new LinkedHashMap<>();
+        if (isScalar(valueClass)) {
+            // all values of the section with relative keys, such as `app.name` for `LABELS_APP_NAME` under `labels`
+            for (Map.Entry<String, String> entry : trie.relativeEntries().entrySet()) {
+                result.put(entry.getKey(), convertValue(entry.getValue(), valueClass));
+            }
+        } else {
+            for (String name : trie.childNames()) {
+                result.put(name, bind(trie.subTrie(name), valueType));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * copy the bound entries to the declared map type, such as `HashMap`, `TreeMap` or `SortedMap`
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toMapType(Map<String, Object> entries, Class<?> clazz) throws Exception {
+        if (clazz.isInstance(entries)) {
+            return entries;
+        }
+        if (clazz.isAssignableFrom(TreeMap.class)) {
+            return new TreeMap<>(entries);
+        }
+        final Map<String, Object> map = (Map<String, Object>) clazz.getDeclaredConstructor().newInstance();
+        map.putAll(entries);
+        return map;
+    }
+
+    static Object convertValue(String value, Class<?> type) {
+        if (type == String.class || type == Object.class) {
+            return value;
+        } else if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(value);
+        } else if (type == boolean.class || type == Boolean.class) {
+            return Boolean.parseBoolean(value);
+        } else if (type == long.class || type == Long.class) {
+            return Long.parseLong(value);
+        } else if (type == double.class || type == Double.class) {
+            return Double.parseDouble(value);
+        }
+        throw new UnsupportedOperationException("Unsupported type: " + type.getName());
+    }
+
+    private static boolean isScalar(Class<?> clazz) {
+        return clazz.isPrimitive() || clazz == String.class || clazz == Object.class
+                || clazz == Integer.class || clazz == Boolean.class || clazz == Long.class || clazz == Double.class;
+    }
+
+    private static Object defaultValue(Class<?> primitiveType) {
+        if (primitiveType == boolean.class) {
+            return false;
+        } else if (primitiveType == long.class) {
+            return 0L;
+        } else if (primitiveType == double.class) {
+            return 0.0d;
+        }
+        return 0;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        } else if (type instanceof ParameterizedType parameterizedType) {
+            return (Class<?>) parameterizedType.getRawType();
+        }
+        return Object.class;
+    }
+}
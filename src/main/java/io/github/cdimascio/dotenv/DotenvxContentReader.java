@@ -0,0 +1,28 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.dotenv.internal.DotenvReader;
+
+import java.util.List;
+
+/**
+ * {@link DotenvReader} of in-memory .env content, so the parser of file loads is reused without temp files.
+ *
+ * @author linux_china
+ */
+final class DotenvxContentReader extends DotenvReader {
+    private final List<String> lines;
+
+    DotenvxContentReader(CharSequence content) {
+        this(content.toString().lines().toList());
+    }
+
+    DotenvxContentReader(List<String> lines) {
+        super("./", ".env");
+        this.lines = lines;
+    }
+
+    @Override
+    public List<String> read() {
+        return lines;
+    }
+}
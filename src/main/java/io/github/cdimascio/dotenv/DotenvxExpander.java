@@ -0,0 +1,240 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Variable expansion for `${VAR}` and `${VAR:-default}` references in values.
+ * Every value is parsed once into a template, and values are evaluated in dependency order with an explicit stack,
+ * so each value is decrypted and expanded only once, and deep reference chains don't overflow the thread stack.
+ * A reference is resolved from the entries of the file first, then from environment variables,
+ * and a value referencing its own key, such as `PATH=${PATH}:/opt/bin`, reads the environment variable.
+ * Unresolved references without default are expanded to empty string.
+ * Filtered-out entries are resolved from their raw values kept by the index, and they are expanded only when referenced,
+ * but a reference to a filtered-out encrypted value is rejected, because filtered-out values are never decrypted.
+ *
+ * @author linux_china
+ */
+final class DotenvxExpander {
+    private static final byte NEW = 0;
+    private static final byte VISITING = 1;
+    private static final byte DONE = 2;
+
+    private DotenvxExpander() {
+    }
+
+    /**
+     * expand all values of the index
+     *
+     * @param index     parsed entries
+     * @param decryptor decryptor for the text of {@link DotenvxIndex#cipherText(String)}, null if no encrypted values
+     * @return expanded values in index order, and the first {@link DotenvxIndex#size()} values are the entries of the index
+     * @throws DotenvException circular reference, or reference to a filtered-out encrypted value
+     */
+    static String[] expand(DotenvxIndex index, @Nullable UnaryOperator<String> decryptor) throws DotenvException {
+        final int size = index.size();
+        final Map<String, String> filteredValues = index.filteredValues();
+        final int total = size + filteredValues.size();
+        final String[] keys = new String[total];
+        final String[] values = new String[total];
+        for (int i = 0; i < size; i++) {
+            keys[i] = index.key(i);
+            values[i] = index.value(i);
+        }
+        int next = size;
+        for (Map.Entry<String, String> entry : filteredValues.entrySet()) {
+            keys[next] = entry.getKey();
+            values[next++] = entry.getValue();
+        }
+        final Map<String, Integer> positions = new HashMap<>((int) (total / 0.75f) + 1);
+        for (int i = 0; i < total; i++) {
+            positions.put(keys[i], i);
+        }
+        final Template[] templates = new Template[total];
+        final int[] cursors = new int[total];
+        final byte[] states = new byte[total];
+        final String[] expanded = new String[total];
+        final int[] stack = new int[total];
+        for (int root = 0; root < size; root++) {
+            if (states[root] == DONE) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                final int position = stack[top - 1];
+                if (states[position] == NEW) {
+                    states[position] = VISITING;
+                    String value = values[position];
+                    if (position >= size && DotenvxIndex.isEncrypted(value)) {
+                        throw new DotenvException("Variable " + keys[stack[top - 2]] + " references filtered-out encrypted key " + keys[position]
+                                + ", please include the key");
+                    }
+                    if (decryptor != null && DotenvxIndex.isEncrypted(value)) {
+                        value = decryptor.apply(DotenvxIndex.cipherText(value));
+                    }
+                    templates[position] = Template.parse(value);
+                }
+                final List<String> names = templates[position].names;
+                int pending = -1;
+                while (cursors[position] < names.size()) {
+                    final Integer dependency = positions.get(names.get(cursors[position]));
+                    if (dependency != null && dependency != position) {
+                        if (states[dependency] == VISITING) {
+                            throw new DotenvException("Circular reference of variables: " + cycle(keys, stack, top, dependency));
+                        }
+                        if (states[dependency] == NEW) {
+                            pending = dependency;
+                            break;
+                        }
+                    }
+                    cursors[position]++;
+                }
+                if (pending >= 0) {
+                    stack[top++] = pending;
+                    continue;
+                }
+                expanded[position] = templates[position].evaluate(name -> {
+                    final Integer dependency = positions.get(name);
+                    return dependency != null && dependency != position ? expanded[dependency] : System.getenv(name);
+                });
+                templates[position] = null;
+                states[position] = DONE;
+                top--;
+            }
+        }
+        return expanded;
+    }
+
+    private static String cycle(String[] keys, int[] stack, int top, int dependency) {
+        final StringBuilder sb = new StringBuilder();
+        int start = top - 1;
+        while (stack[start] != dependency) {
+            start--;
+        }
+        for (int i = start; i < top; i++) {
+            sb.append(keys[stack[i]]).append(" -> ");
+        }
+        return sb.append(keys[dependency]).toString();
+    }
+
+    /**
+     * parsed value with literal parts and references
+     */
+    private static final class Template {
+        private static final Template EMPTY = new Template(new Object[]{""}, List.of());
+        private final Object[] parts;
+        private final List<String> names;
+
+        private Template(Object[] parts, List<String> names) {
+            this.parts = parts;
+            this.names = names;
+        }
+
+        static Template parse(String text) {
+            if (!text.contains("${")) {
+                return new Template(new Object[]{text}, List.of());
+            }
+            final List<Object> parts = new ArrayList<>();
+            final List<String> names = new ArrayList<>();
+            final StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < text.length()) {
+                final int start = text.indexOf("${", i);
+                final int end = start < 0 ? -1 : closingBrace(text, start + 2);
+                if (end < 0) {
+                    literal.append(text, i, text.length());
+                    break;
+                }
+                final Reference reference = Reference.parse(text.substring(start + 2, end));
+                if (reference == null) {
+                    literal.append(text, i, end + 1);
+                } else {
+                    literal.append(text, i, start);
+                    if (!literal.isEmpty()) {
+                        parts.add(literal.toString());
+                        literal.setLength(0);
+                    }
+                    parts.add(reference);
+                    names.add(reference.name);
+                    if (reference.defaultValue != null) {
+                        names.addAll(reference.defaultValue.names);
+                    }
+                }
+                i = end + 1;
+            }
+            if (!literal.isEmpty()) {
+                parts.add(literal.toString());
+            }
+            return new Template(parts.toArray(), names);
+        }
+
+        String evaluate(UnaryOperator<String> lookup) {
+            if (parts.length == 1 && parts[0] instanceof String text) {
+                return text;
+            }
+            final StringBuilder sb = new StringBuilder();
+            for (Object part : parts) {
+                if (part instanceof Reference reference) {
+                    final String value = lookup.apply(reference.name);
+                    if (value != null && !(value.isEmpty() && reference.defaultValue != null)) {
+                        sb.append(value);
+                    } else if (reference.defaultValue != null) {
+                        sb.append(reference.defaultValue.evaluate(lookup));
+                    }
+                } else {
+                    sb.append((String) part);
+                }
+            }
+            return sb.toString();
+        }
+
+        private static int closingBrace(String text, int offset) {
+            int depth = 1;
+            for (int i = offset; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                if (c == '$' && i + 1 < text.length() && text.charAt(i + 1) == '{') {
+                    depth++;
+                    i++;
+                } else if (c == '}' && --depth == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * `${name}` or `${name:-default}`, and the default is used when the value is missing or empty
+     */
+    private record Reference(String name, @Nullable Template defaultValue) {
+
+        @Nullable
+        static Reference parse(String content) {
+            int i = 0;
+            while (i < content.length() && isNameChar(content.charAt(i))) {
+                i++;
+            }
+            if (i == 0) {
+                return null;
+            }
+            if (i == content.length()) {
+                return new Reference(content, null);
+            }
+            if (content.startsWith(":-", i)) {
+                final String defaultValue = content.substring(i + 2);
+                return new Reference(content.substring(0, i), defaultValue.isEmpty() ? Template.EMPTY : Template.parse(defaultValue));
+            }
+            return null;
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-';
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line-preserving model of a .env or .properties file for rewriting values in place:
+ * comments, blank lines, ordering, quotes and line terminators are kept as they are.
+ * An entry spans multiple physical lines like the readers parse it: a double-quoted multi-line value of .env,
+ * or backslash continuation lines of .properties, and the whole span is replaced when the value is changed.
+ * The file is read and written with ISO-8859-1, so bytes outside the changed values are preserved exactly.
+ *
+ * @author linux_china
+ */
+final class DotenvxFile {
+    private static final Pattern ENV_LINE = Pattern.compile("^(\\s*(?:export\\s+)?)([\\w.\\-]+)(\\s*=\\s*)(.*)$", Pattern.DOTALL);
+    private static final Pattern PROPERTIES_LINE = Pattern.compile("^(\\s*)((?:\\\\.|[^=:\\s#!\\\\])(?:\\\\.|[^=:\\s\\\\])*)(\\s*[=:]\\s*|\\s+)(.*)$", Pattern.DOTALL);
+    private static final Pattern ENV_KEY = Pattern.compile("[\\w.\\-]+");
+    private final boolean properties;
+    private final List<Line> lines = new ArrayList<>();
+    private String defaultTerminator = "\n";
+
+    private DotenvxFile(boolean properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * read the file, and an empty model is returned if the file doesn't exist
+     */
+    static DotenvxFile read(@NonNull Path path) throws IOException {
+        final DotenvxFile file = new DotenvxFile(path.getFileName().toString().endsWith(".properties"));
+        if (!Files.exists(path)) {
+            return file;
+        }
+        final String content = Files.readString(path, StandardCharsets.ISO_8859_1);
+        final List<String> texts = new ArrayList<>();
+        final List<String> terminators = new ArrayList<>();
+        int start = 0;
+        final int length = content.length();
+        while (start < length) {
+            int end = start;
+            while (end < length && content.charAt(end) != '\n' && content.charAt(end) != '\r') {
+                end++;
+            }
+            int next = end;
+            if (next < length && content.charAt(next) == '\r') {
+                next++;
+            }
+            if (next < length && content.charAt(next) == '\n') {
+                next++;
+            }
+            texts.add(content.substring(start, end));
+            terminators.add(content.substring(end, next));
+            start = next;
+        }
+        if (!terminators.isEmpty() && !terminators.get(0).isEmpty()) {
+            file.defaultTerminator = terminators.get(0);
+        }
+        for (int i = 0; i < texts.size(); i++) {
+            final int last = file.entryEnd(texts, i);
+            final StringBuilder text = new StringBuilder(texts.get(i));
+            for (int j = i + 1; j <= last; j++) {
+                text.append(terminators.get(j - 1)).append(texts.get(j));
+            }
+            file.lines.add(file.parseLine(text.toString(), terminators.get(last)));
+            i = last;
+        }
+        return file;
+    }
+
+    /**
+     * index of the last physical line of the entry starting at the line
+     */
+    private int entryEnd(List<String> texts, int first) {
+        final String text = texts.get(first);
+        if (properties) {
+            final String trimmed = text.stripLeading();
+            if (trimmed.isEmpty() || trimmed.charAt(0) == '#' || trimmed.charAt(0) == '!') {
+                return first;
+            }
+            int last = first;
+            while (last + 1 < texts.size() && endsWithContinuation(texts.get(last))) {
+                last++;
+            }
+            return last;
+        }
+        // only double-quoted values span lines, same as the .env parser
+        final Matcher matcher = ENV_LINE.matcher(text);
+        if (matcher.matches()) {
+            final int valueStart = matcher.start(4);
+            if (valueStart < text.length() && text.charAt(valueStart) == '"' && text.indexOf('"', valueStart + 1) < 0) {
+                for (int last = first + 1; last < texts.size(); last++) {
+                    if (texts.get(last).indexOf('"') >= 0) {
+                        return last;
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+    private static boolean endsWithContinuation(String text) {
+        int backslashes = 0;
+        for (int i = text.length() - 1; i >= 0 && text.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return (backslashes & 1) == 1;
+    }
+
+    boolean isProperties() {
+        return properties;
+    }
+
+    int size() {
+        return lines.size();
+    }
+
+    /**
+     * key of the entry, null for comments and blank lines, and escapes of .properties keys are processed
+     */
+    @Nullable
+    String key(int index) {
+        return lines.get(index).key;
+    }
+
+    /**
+     * raw value of the entry without quotes, null if the line is not an entry
+     */
+    @Nullable
+    String value(int index) {
+        final Line line = lines.get(index);
+        return line.key == null ? null : line.text.substring(line.valueStart, line.valueEnd);
+    }
+
+    /**
+     * value of the entry as it's loaded: continuation lines joined and escapes processed for .properties,
+     * and line breaks normalized to `\n` and UTF-8 decoded for .env
+     */
+    @Nullable
+    String decodedValue(int index) {
+        final String value = value(index);
+        if (value == null) {
+            return null;
+        }
+        return properties ? DotenvxPropertiesReader.unescape(joinContinuationLines(value))
+                : new String(value.replace("\r\n", "\n").replace('\r', '\n').getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * remove the continuation backslash, the line break and the leading whitespace of the next line
+     */
+    private static String joinContinuationLines(String value) {
+        if (value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\r' || c == '\n') {
+                sb.setLength(sb.length() - 1);
+                if (c == '\r' && i + 1 < value.length() && value.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                while (i + 1 < value.length() && (value.charAt(i + 1) == ' ' || value.charAt(i + 1) == '\t' || value.charAt(i + 1) == '\f')) {
+                    i++;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * replace the value of the entry, and quotes, spaces and trailing comments are kept.
+     * The value of a multi-line entry is replaced as a whole, and the entry becomes one line.
+     */
+    void setValue(int index, @NonNull String value) {
+        final Line line = lines.get(index);
+        if (line.key == null) {
+            throw new DotenvException("Line " + index + " is not an entry");
+        }
+        final String text = line.text.substring(0, line.valueStart) + value + line.text.substring(line.valueEnd);
+        lines.set(index, parseLine(text, line.terminator));
+    }
+
+    /**
+     * append a new entry at the end of the file
+     *
+     * @return entry index of the new entry
+     */
+    int append(@NonNull String key, @NonNull String value) {
+        if (!lines.isEmpty()) {
+            final Line last = lines.get(lines.size() - 1);
+            if (last.terminator.isEmpty()) {
+                lines.set(lines.size() - 1, parseLine(last.text, defaultTerminator));
+            }
+        }
+        return insert(lines.size(), key, value);
+    }
+
+    /**
+     * insert a new entry before the entry, and .properties keys are escaped like {@link java.util.Properties#store(java.io.Writer, String)}
+     *
+     * @return entry index of the new entry
+     * @throws DotenvException the key is not a valid .env key, such as a key with spaces
+     */
+    int insert(int index, @NonNull String key, @NonNull String value) {
+        if (!properties && !ENV_KEY.matcher(key).matches()) {
+            throw new DotenvException("Invalid .env key, only letters, digits, '_', '.' and '-' are allowed: " + key);
+        }
+        final String text = properties ? escapeKey(key) + "=" + value : key + "=\"" + value + "\"";
+        final Line line = parseLine(text, defaultTerminator);
+        if (!key.equals(line.key)) {
+            throw new DotenvException("Failed to write entry of key: " + key);
+        }
+        lines.add(index, line);
+        return index;
+    }
+
+    /**
+     * escape the .properties key: separators, comment chars, whitespace and backslash are escaped with backslash,
+     * and chars outside printable ASCII are written as unicode escapes, so the file is valid in any charset
+     */
+    static String escapeKey(String key) {
+        final StringBuilder sb = new StringBuilder(key.length() + 8);
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            switch (c) {
+                case ' ' -> sb.append("\\ ");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\f' -> sb.append("\\f");
+                case '=', ':', '#', '!', '\\' -> sb.append('\\').append(c);
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04X", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * find the entry index of the key, -1 if not found. The last one wins for duplicated keys.
+     */
+    int indexOf(@NonNull String key) {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            if (key.equals(lines.get(i).key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * public key line prefix: `DOTENV_PUBLIC_KEY` for .env and `dotenv.public.key` for .properties
+     */
+    String publicKeyPrefix() {
+        return properties ? "dotenv.public.key" : "DOTENV_PUBLIC_KEY";
+    }
+
+    /**
+     * write to a temp file in the same directory, then move it over the target file atomically.
+     * A symbolic link is kept and its target file is replaced, and the POSIX permissions, owner and group of the replaced file
+     * are copied to the new file, so other users can still read it. The owner and group are kept only if the process is allowed to set them.
+     */
+    void writeAtomically(@NonNull Path path) throws IOException {
+        Path target = path.toAbsolutePath();
+        if (Files.isSymbolicLink(target) && Files.exists(target)) {
+            target = target.toRealPath();
+        }
+        final Path tempFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.ISO_8859_1)) {
+                for (Line line : lines) {
+                    writer.write(line.text);
+                    writer.write(line.terminator);
+                }
+            }
+            if (Files.exists(target)) {
+                copyPosixAttributes(target, tempFile);
+            }
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void copyPosixAttributes(Path source, Path target) throws IOException {
+        final PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        final PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (sourceView == null || targetView == null) {
+            return;
+        }
+        final PosixFileAttributes attributes = sourceView.readAttributes();
+        try {
+            targetView.setGroup(attributes.group());
+            targetView.setOwner(attributes.owner());
+        } catch (IOException ignore) {
+            // chown requires privileges, and the new file is owned by the current user then
+        }
+        // permissions after owner, because chown may clear setuid and setgid bits
+        targetView.setPermissions(attributes.permissions());
+    }
+
+    private Line parseLine(String text, String terminator) {
+        final Matcher matcher = (properties ? PROPERTIES_LINE : ENV_LINE).matcher(text);
+        if (!matcher.matches()) {
+            return new Line(text, terminator, null, 0, 0);
+        }
+        int valueStart = matcher.start(4);
+        int valueEnd = text.length();
+        if (properties) {
+            return new Line(text, terminator, DotenvxPropertiesReader.unescape(matcher.group(2)), valueStart, valueEnd);
+        }
+        if (valueStart < valueEnd && (text.charAt(valueStart) == '"' || text.charAt(valueStart) == '\'')) {
+            final char quote = text.charAt(valueStart);
+            final int closing = text.indexOf(quote, valueStart + 1);
+            valueStart++;
+            if (closing > 0) {
+                valueEnd = closing;
+            }
+        } else {
+            final int comment = text.indexOf('#', valueStart);
+            if (comment >= 0) {
+                valueEnd = comment;
+            }
+            while (valueEnd > valueStart && Character.isWhitespace(text.charAt(valueEnd - 1))) {
+                valueEnd--;
+            }
+        }
+        return new Line(text, terminator, matcher.group(2), valueStart, valueEnd);
+    }
+
+    private record Line(String text, String terminator, @Nullable String key, int valueStart, int valueEnd) {
+    }
+}
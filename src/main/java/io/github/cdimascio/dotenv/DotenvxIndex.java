@@ -0,0 +1,257 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.EciesCompression;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Parse result of a .env or .properties file, built in one pass: entries in file order,
+ * positions of encrypted values, public keys and profile name.
+ * The loading phase works on this index only, so unencrypted entries are never scanned again.
+ * Encrypted values are decrypted after the scan, because the public key to pick the private key may follow them in the file.
+ *
+ * @author linux_china
+ */
+final class DotenvxIndex {
+    static final String ENCRYPTED_PREFIX = "encrypted:";
+    /**
+     * format tag of envelope values after the `encrypted:` marker, and `:` is not a base64 char, so it can't start an ECIES ciphertext
+     */
+    static final String ENVELOPE_FORMAT = "envelope:";
+    static final String ENVELOPE_PREFIX = ENCRYPTED_PREFIX + ENVELOPE_FORMAT;
+    static final String COMPRESSED_FORMAT = EciesCompression.COMPRESSED_FORMAT;
+    static final String COMPRESSED_PREFIX = EciesCompression.COMPRESSED_PREFIX;
+    private final String publicKeyPrefix;
+    @Nullable
+    private final String profileName;
+    private final Map<String, String> publicKeys = new LinkedHashMap<>(2);
+    private final Map<String, Integer> positions = new HashMap<>();
+    private String[] keys = new String[16];
+    private String[] values = new String[16];
+    private int size;
+    private int[] encryptedPositions = new int[8];
+    private int encryptedCount;
+    @Nullable
+    private Predicate<String> keyFilter;
+    @Nullable
+    private Map<String, String> filteredValues;
+
+    private DotenvxIndex(String publicKeyPrefix, @Nullable String profileName) {
+        this.publicKeyPrefix = publicKeyPrefix;
+        this.profileName = profileName;
+    }
+
+    /**
+     * create index for .env file, and profile name is parsed from file name, such as `.env.prod`
+     */
+    static DotenvxIndex forEnv(@NonNull String filename) {
+        String profileName = null;
+        if (filename.contains(".env.")) {
+            profileName = filename.substring(filename.indexOf(".env.") + 5);
+        }
+        return new DotenvxIndex("DOTENV_PUBLIC_KEY", profileName);
+    }
+
+    /**
+     * create index for .properties file, and profile name is parsed from file name, such as `application-prod.properties`
+     */
+    static DotenvxIndex forProperties(@NonNull String filename) {
+        String profileName = null;
+        if (filename.contains("-")) {
+            profileName = filename.substring(filename.indexOf("-") + 1, filename.lastIndexOf('.'));
+        }
+        return new DotenvxIndex("dotenv.public.key", profileName);
+    }
+
+    /**
+     * set the key filter, and filtered-out entries are dropped by {@link #add(String, String)},
+     * but public keys are still recorded for decryption
+     */
+    DotenvxIndex keyFilter(@Nullable Predicate<String> keyFilter) {
+        this.keyFilter = keyFilter;
+        return this;
+    }
+
+    /**
+     * keep raw values of filtered-out entries for `${VAR}` references of variable expansion,
+     * and they are never decrypted or returned by {@link #toEntries()} and {@link #toMap()}
+     */
+    DotenvxIndex keepFilteredValues(boolean keep) {
+        this.filteredValues = keep ? new HashMap<>() : null;
+        return this;
+    }
+
+    /**
+     * check the value of the key is needed or not, so readers can skip decoding values of filtered-out entries
+     */
+    boolean accepts(@NonNull String key) {
+        return keyFilter == null || filteredValues != null || key.startsWith(publicKeyPrefix) || keyFilter.test(key);
+    }
+
+    /**
+     * add the entry, and a duplicated key replaces the value of its first position, like {@link java.util.Properties#load(java.io.Reader)},
+     * so only the last occurrence is decrypted
+     */
+    void add(@NonNull String key, @NonNull String value) {
+        if (keyFilter != null && !keyFilter.test(key)) {
+            if (key.startsWith(publicKeyPrefix) && !value.isEmpty()) {
+                publicKeys.put(key, value);
+            }
+            if (filteredValues != null) {
+                filteredValues.put(key, value);
+            }
+            return;
+        }
+        final Integer existing = positions.putIfAbsent(key, size);
+        final int position;
+        if (existing != null) {
+            position = existing;
+            if (isEncrypted(values[position])) {
+                removeEncryptedPosition(position);
+            }
+        } else {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            position = size++;
+        }
+        if (isEncrypted(value)) {
+            if (encryptedCount == encryptedPositions.length) {
+                encryptedPositions = Arrays.copyOf(encryptedPositions, encryptedCount << 1);
+            }
+            encryptedPositions[encryptedCount++] = position;
+        } else if (key.startsWith(publicKeyPrefix) && !value.isEmpty()) {
+            publicKeys.put(key, value);
+        }
+        keys[position] = key;
+        values[position] = value;
+    }
+
+    private void removeEncryptedPosition(int position) {
+        for (int i = 0; i < encryptedCount; i++) {
+            if (encryptedPositions[i] == position) {
+                System.arraycopy(encryptedPositions, i + 1, encryptedPositions, i, --encryptedCount - i);
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    String key(int position) {
+        return keys[position];
+    }
+
+    String value(int position) {
+        return values[position];
+    }
+
+    boolean hasEncrypted() {
+        return encryptedCount > 0;
+    }
+
+    int encryptedCount() {
+        return encryptedCount;
+    }
+
+    @Nullable
+    String profileName() {
+        return profileName;
+    }
+
+    /**
+     * first public key in the file, such as `DOTENV_PUBLIC_KEY` or `dotenv.public.key`
+     */
+    @Nullable
+    String publicKeyHex() {
+        return publicKeys.isEmpty() ? null : publicKeys.values().iterator().next();
+    }
+
+    /**
+     * all public keys in file order, key name to public key in hex
+     */
+    Map<String, String> publicKeys() {
+        return Collections.unmodifiableMap(publicKeys);
+    }
+
+    /**
+     * raw values of filtered-out entries, empty unless {@link #keepFilteredValues(boolean)} is set
+     */
+    Map<String, String> filteredValues() {
+        return filteredValues == null ? Map.of() : filteredValues;
+    }
+
+    /**
+     * encrypted texts in file order, see {@link #cipherText(String)}
+     */
+    List<String> encryptedTexts() {
+        final List<String> texts = new ArrayList<>(encryptedCount);
+        for (int i = 0; i < encryptedCount; i++) {
+            texts.add(cipherText(values[encryptedPositions[i]]));
+        }
+        return texts;
+    }
+
+    static boolean isEncrypted(String value) {
+        return value.startsWith(ENCRYPTED_PREFIX);
+    }
+
+    /**
+     * text for the decryptor: value without `encrypted:` prefix, so envelope and compressed values keep their format tags
+     */
+    static String cipherText(String value) {
+        return value.startsWith(ENCRYPTED_PREFIX) ? value.substring(ENCRYPTED_PREFIX.length()) : value;
+    }
+
+    /**
+     * replace encrypted values with decrypted values
+     *
+     * @param decryptor decryptor for the text of {@link #cipherText(String)}
+     */
+    void decrypt(UnaryOperator<String> decryptor) {
+        for (int i = 0; i < encryptedCount; i++) {
+            final int position = encryptedPositions[i];
+            values[position] = decryptor.apply(cipherText(values[position]));
+        }
+        encryptedCount = 0;
+    }
+
+    /**
+     * decrypt encrypted values and expand `${VAR}` references, see {@link DotenvxExpander}
+     *
+     * @param decryptor decryptor for the text of {@link #cipherText(String)}, null if no encrypted values
+     */
+    void expand(@Nullable UnaryOperator<String> decryptor) {
+        System.arraycopy(DotenvxExpander.expand(this, decryptor), 0, values, 0, size);
+        encryptedCount = 0;
+    }
+
+    List<DotenvEntry> toEntries() {
+        List<DotenvEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new DotenvEntry(keys[i], values[i]));
+        }
+        return entries;
+    }
+
+    Map<String, String> toMap() {
+        Map<String, String> entries = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) {
+            entries.put(keys[i], values[i]);
+        }
+        return Collections.unmodifiableMap(entries);
+    }
+}
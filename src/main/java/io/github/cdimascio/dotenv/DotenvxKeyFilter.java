@@ -0,0 +1,134 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Key filters for selective loading with {@code include()} and {@code exclude()} of builders:
+ * filtered-out entries are dropped while parsing, so they are never decrypted, retained or exported to system properties.
+ *
+ * <pre>{@code
+ * Dotenv dotenv = Dotenvx.configure()
+ *         .include(DotenvxKeyFilter.prefix("ORDER_", "PAYMENT_"))
+ *         .exclude(DotenvxKeyFilter.glob("*_LEGACY_*"))
+ *         .load();
+ * }</pre>
+ *
+ * @author linux_china
+ */
+public final class DotenvxKeyFilter implements Predicate<String> {
+    private final Predicate<String> predicate;
+
+    private DotenvxKeyFilter(Predicate<String> predicate) {
+        this.predicate = predicate;
+    }
+
+    /**
+     * keys starting with any of the prefixes
+     *
+     * @param prefixes key prefixes, such as `DB_` or `spring.datasource.`
+     * @return key filter
+     */
+    public static DotenvxKeyFilter prefix(@NonNull String... prefixes) {
+        final String[] copy = prefixes.clone();
+        return new DotenvxKeyFilter(key -> {
+            for (String prefix : copy) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * keys matching any of the glob patterns, `*` matches any characters and `?` matches one character
+     *
+     * @param patterns glob patterns, such as `DB_*_URL`
+     * @return key filter
+     */
+    public static DotenvxKeyFilter glob(@NonNull String... patterns) {
+        final String[] copy = patterns.clone();
+        return new DotenvxKeyFilter(key -> {
+            for (String pattern : copy) {
+                if (globMatches(pattern, key)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * keys in the set
+     *
+     * @param keys key names
+     * @return key filter
+     */
+    public static DotenvxKeyFilter keys(@NonNull String... keys) {
+        return keys(Arrays.asList(keys));
+    }
+
+    /**
+     * keys in the set
+     *
+     * @param keys key names
+     * @return key filter
+     */
+    public static DotenvxKeyFilter keys(@NonNull Collection<String> keys) {
+        return new DotenvxKeyFilter(Set.copyOf(keys)::contains);
+    }
+
+    @Override
+    public boolean test(String key) {
+        return predicate.test(key);
+    }
+
+    /**
+     * compose include and exclude filters of builders
+     *
+     * @param include include filter, null to include all keys
+     * @param exclude exclude filter, null to exclude nothing
+     * @return composed filter, null if both are null
+     */
+    @Nullable
+    static Predicate<String> compose(@Nullable Predicate<String> include, @Nullable Predicate<String> exclude) {
+        if (include == null) {
+            return exclude == null ? null : exclude.negate();
+        }
+        return exclude == null ? include : include.and(exclude.negate());
+    }
+
+    /**
+     * iterative glob matching with backtracking to the last `*`, without regex compilation
+     */
+    static boolean globMatches(String pattern, String text) {
+        int p = 0;
+        int t = 0;
+        int star = -1;
+        int match = 0;
+        while (t < text.length()) {
+            if (p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == text.charAt(t))) {
+                p++;
+                t++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                star = p++;
+                match = t;
+            } else if (star >= 0) {
+                p = star + 1;
+                t = ++match;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.ecies.EciesEnvelope;
+import io.github.cdimascio.ecies.EciesPrivateKey;
+import io.github.cdimascio.ecies.EciesPublicKey;
+import org.bouncycastle.util.encoders.Base64;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Rotates the dotenvx key pair of a .env or .properties file: all `encrypted:` values are decrypted with the old private key
+ * and re-encrypted with the new public key in parallel, `DOTENV_PUBLIC_KEY*` or `dotenv.public.key*` is updated,
+ * and the file is written atomically with comments and ordering preserved.
+ * The new private key is not saved by the rotator, please save it to `.env.keys` or your key store.
+ *
+ * <pre>{@code
+ * DotenvxKeyRotator.Result result = new DotenvxKeyRotator()
+ *         .privateKey(oldPrivateKeyHex)
+ *         .rotate(Paths.get(".env"));
+ * }</pre>
+ *
+ * @author linux_china
+ */
+@SuppressWarnings("unused")
+public class DotenvxKeyRotator {
+    private String privateKeyHex = null;
+    private String newPublicKeyHex = null;
+
+    /**
+     * set the old private key
+     *
+     * @param privateKeyHex old private key in hexadecimal format
+     * @return this {@link DotenvxKeyRotator}
+     */
+    public DotenvxKeyRotator privateKey(String privateKeyHex) {
+        this.privateKeyHex = privateKeyHex;
+        return this;
+    }
+
+    /**
+     * set the new public key, and a new key pair is generated for every file if not set
+     *
+     * @param newPublicKeyHex new public key in hexadecimal format
+     * @return this {@link DotenvxKeyRotator}
+     */
+    public DotenvxKeyRotator newPublicKey(String newPublicKeyHex) {
+        this.newPublicKeyHex = newPublicKeyHex;
+        return this;
+    }
+
+    /**
+     * rotate the key pair of the file
+     *
+     * @param file .env or .properties file
+     * @return rotation result with the new key pair
+     * @throws DotenvException when an error occurs, and the file is untouched
+     */
+    @NonNull
+    public Result rotate(@NonNull Path file) throws DotenvException {
+        if (privateKeyHex == null || privateKeyHex.isEmpty()) {
+            throw new DotenvException("Old private key is required for key rotation.");
+        }
+        if (!Files.exists(file)) {
+            throw new DotenvException("File not found: " + file);
+        }
+        final EciesPrivateKey oldPrivateKey = new EciesPrivateKey(privateKeyHex);
+        String newPrivateKeyHex = null;
+        final EciesPublicKey newPublicKey;
+        try {
+            if (newPublicKeyHex != null && !newPublicKeyHex.isEmpty()) {
+                newPublicKey = new EciesPublicKey(newPublicKeyHex);
+            } else {
+                final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+                newPublicKey = new EciesPublicKey(keyPair.getPublicHex(true));
+                newPrivateKeyHex = keyPair.getPrivateHex();
+            }
+        } catch (Exception e) {
+            throw new DotenvException("Failed to prepare the new public key: " + e.getMessage());
+        }
+        try {
+            final DotenvxFile dotenvxFile = DotenvxFile.read(file);
+            final String publicKeyPrefix = dotenvxFile.publicKeyPrefix();
+            final String oldPublicKeyHex = oldPrivateKey.getPublicKeyHex();
+            final List<Integer> publicKeyLines = new ArrayList<>();
+            final List<Integer> encryptedLines = new ArrayList<>();
+            for (int i = 0; i < dotenvxFile.size(); i++) {
+                final String key = dotenvxFile.key(i);
+                if (key == null) {
+                    continue;
+                }
+                final String value = dotenvxFile.value(i);
+                if (key.startsWith(publicKeyPrefix)) {
+                    if (!value.isEmpty() && !value.equalsIgnoreCase(oldPublicKeyHex)) {
+                        throw new DotenvException("Private key doesn't match " + key + " in " + file);
+                    }
+                    publicKeyLines.add(i);
+                } else if (DotenvxIndex.isEncrypted(value)) {
+                    encryptedLines.add(i);
+                }
+            }
+            final String[] rotated = new String[encryptedLines.size()];
+            IntStream.range(0, rotated.length).parallel().forEach(i -> {
+                final String value = dotenvxFile.value(encryptedLines.get(i));
+                try {
+                    if (value.startsWith(DotenvxIndex.ENVELOPE_PREFIX)) {
+                        // seal again with a fresh data key, because the old private key could unwrap the old one,
+                        // and other recipients are kept
+                        final String envelope = value.substring(DotenvxIndex.ENVELOPE_PREFIX.length());
+                        final List<EciesPublicKey> recipients = new ArrayList<>();
+                        recipients.add(newPublicKey);
+                        for (String recipient : EciesEnvelope.recipients(envelope)) {
+                            if (!recipient.equalsIgnoreCase(oldPublicKeyHex)) {
+                                recipients.add(new EciesPublicKey(recipient));
+                            }
+                        }
+                        rotated[i] = DotenvxIndex.ENVELOPE_PREFIX + EciesEnvelope.seal(EciesEnvelope.open(envelope, oldPrivateKey), recipients);
+                    } else if (value.startsWith(DotenvxIndex.COMPRESSED_PREFIX)) {
+                        // re-encrypt the compressed bytes, without decompression
+                        final byte[] compressed = oldPrivateKey.decrypt(Base64.decode(value.substring(DotenvxIndex.COMPRESSED_PREFIX.length())));
+                        rotated[i] = DotenvxIndex.COMPRESSED_PREFIX + Base64.toBase64String(newPublicKey.encrypt(compressed));
+                    } else {
+                        final String plainText = oldPrivateKey.decrypt(value.substring(DotenvxIndex.ENCRYPTED_PREFIX.length()));
+                        rotated[i] = DotenvxIndex.ENCRYPTED_PREFIX + newPublicKey.encrypt(plainText);
+                    }
+                } catch (Exception e) {
+                    throw new DotenvException("Failed to rotate " + dotenvxFile.key(encryptedLines.get(i)) + " in " + file);
+                }
+            });
+            for (int i = 0; i < rotated.length; i++) {
+                dotenvxFile.setValue(encryptedLines.get(i), rotated[i]);
+            }
+            for (Integer line : publicKeyLines) {
+                dotenvxFile.setValue(line, newPublicKey.getPublicKeyHex());
+            }
+            dotenvxFile.writeAtomically(file);
+            return new Result(file, rotated.length, newPublicKey.getPublicKeyHex(), newPrivateKeyHex);
+        } catch (DotenvException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DotenvException("Failed to rotate key for file: " + file);
+        }
+    }
+
+    /**
+     * key rotation result
+     *
+     * @param file          rotated file
+     * @param rotatedCount  count of re-encrypted values
+     * @param publicKeyHex  new public key in hex
+     * @param privateKeyHex new private key in hex if the key pair was generated by the rotator, otherwise null
+     */
+    public record Result(Path file, int rotatedCount, String publicKeyHex, @Nullable String privateKeyHex) {
+    }
+}
@@ -0,0 +1,261 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix trie over the keys of loaded entries, shared by .env and .properties naming:
+ * keys are split into lower-case segments by `_`, `.` and `-`, so `DB_POOL_SIZE`, `db.pool.size` and `db.pool-size` are the same path.
+ * Nodes keep the original key only, and values are read from the source map on demand.
+ * Children are kept in sorted arrays, and lookups are binary searches per segment.
+ *
+ * <pre>{@code
+ * DotenvxKeyTrie trie = DotenvxKeyTrie.of(entries);
+ * Map<String, String> dbEntries = trie.withPrefix("DB_");
+ * }</pre>
+ *
+ * @author linux_china
+ */
+@SuppressWarnings("unused")
+public final class DotenvxKeyTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private final Map<String, String> entries;
+    private final Node root;
+
+    private DotenvxKeyTrie(Map<String, String> entries, Node root) {
+        this.entries = entries;
+        this.root = root;
+    }
+
+    /**
+     * build the trie over the keys of the entries, and the last key wins if keys have the same path
+     *
+     * @param entries loaded entries
+     * @return trie
+     */
+    public static DotenvxKeyTrie of(@NonNull Map<String, String> entries) {
+        final Node root = new Node("");
+        for (String key : entries.keySet()) {
+            Node node = root;
+            for (String segment : segments(key)) {
+                node = node.getOrCreateChild(segment);
+            }
+            node.key = key;
+        }
+        return new DotenvxKeyTrie(entries, root);
+    }
+
+    /**
+     * get the value by the key in any naming, such as `DB_URL` or `db.url`
+     *
+     * @param key key name
+     * @return value, null if not found
+     */
+    @Nullable
+    public String get(@NonNull String key) {
+        final Node node = find(segments(key));
+        return node == null || node.key == null ? null : entries.get(node.key);
+    }
+
+    /**
+     * all entries under the prefix with original keys, and the prefix can be `DB_`, `db.` or `db`
+     *
+     * @param prefix key prefix in any naming
+     * @return entries in trie order, empty if not found
+     */
+    public Map<String, String> withPrefix(@NonNull String prefix) {
+        final Node node = find(segments(prefix));
+        if (node == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> result = new LinkedHashMap<>();
+        collect(node, result);
+        return result;
+    }
+
+    /**
+     * sub trie of the prefix
+     *
+     * @param prefix key prefix in any naming
+     * @return sub trie, null if not found
+     */
+    @Nullable
+    public DotenvxKeyTrie subTrie(@NonNull String prefix) {
+        return subTrie(segments(prefix));
+    }
+
+    /**
+     * value of the root node of this trie, such as the value of `DB` for the sub trie of `DB_`
+     *
+     * @return value, null if no key ends at the root
+     */
+    @Nullable
+    public String value() {
+        return root.key == null ? null : entries.get(root.key);
+    }
+
+    /**
+     * names of the direct children in lower case, such as `primary` and `replica` for `DS_PRIMARY_URL` and `DS_REPLICA_URL`
+     *
+     * @return child segment names in sorted order
+     */
+    public Set<String> childNames() {
+        final Set<String> names = new LinkedHashSet<>(root.childCount);
+        for (int i = 0; i < root.childCount; i++) {
+            names.add(root.children[i].segment);
+        }
+        return names;
+    }
+
+    @Nullable
+    DotenvxKeyTrie subTrie(List<String> segments) {
+        final Node node = find(segments);
+        return node == null ? null : new DotenvxKeyTrie(entries, node);
+    }
+
+    /**
+     * entries under this trie with keys relative to the root, and segments are joined by `.`
+     */
+    Map<String, String> relativeEntries() {
+        final Map<String, String> result = new LinkedHashMap<>();
+        collectRelative(root, "", result);
+        return result;
+    }
+
+    /**
+     * split the key into lower-case segments by `_`, `.` and `-`
+     */
+    static List<String> segments(String key) {
+        final List<String> segments = new ArrayList<>(4);
+        int start = 0;
+        for (int i = 0; i <= key.length(); i++) {
+            if (i == key.length() || isSeparator(key.charAt(i))) {
+                if (i > start) {
+                    segments.add(key.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * split the Java name into lower-case segments by camel case, such as `poolSize` to `pool` and `size`, `dbURL` to `db` and `url`
+     */
+    static List<String> nameSegments(String name) {
+        final List<String> segments = new ArrayList<>(2);
+        int start = 0;
+        for (int i = 1; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                final char previous = name.charAt(i - 1);
+                final boolean nextIsLower = i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1));
+                if (!Character.isUpperCase(previous) || nextIsLower) {
+                    segments.add(name.substring(start, i));
+                    start = i;
+                }
+            }
+        }
+        segments.add(name.substring(start));
+        final List<String> result = new ArrayList<>(segments.size());
+        for (String segment : segments) {
+            result.addAll(segments(segment));
+        }
+        return result;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '_' || c == '.' || c == '-';
+    }
+
+    @Nullable
+    private Node find(List<String> segments) {
+        Node node = root;
+        for (String segment : segments) {
+            node = node.child(segment);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private void collect(Node node, Map<String, String> result) {
+        if (node.key != null) {
+            result.put(node.key, entries.get(node.key));
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            collect(node.children[i], result);
+        }
+    }
+
+    private void collectRelative(Node node, String path, Map<String, String> result) {
+        if (node.key != null && !path.isEmpty()) {
+            result.put(path, entries.get(node.key));
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            final Node child = node.children[i];
+            collectRelative(child, path.isEmpty() ? child.segment : path + "." + child.segment, result);
+        }
+    }
+
+    private static final class Node {
+        private final String segment;
+        private String key;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+
+        Node(String segment) {
+            this.segment = segment;
+        }
+
+        @Nullable
+        Node child(String segment) {
+            final int index = indexOf(segment);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrCreateChild(String segment) {
+            int index = indexOf(segment);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount << 1));
+            }
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            final Node child = new Node(segment);
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        private int indexOf(String segment) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int compare = children[middle].segment.compareTo(segment);
+                if (compare < 0) {
+                    low = middle + 1;
+                } else if (compare > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
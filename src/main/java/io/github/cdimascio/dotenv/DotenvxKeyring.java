@@ -0,0 +1,141 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.EciesPrivateKey;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyring of private keys indexed by public key, for services that decrypt files and values of many tenants.
+ * Private key material is registered once, and the prepared {@link EciesPrivateKey} contexts are kept in a bounded
+ * concurrent cache, and evicted contexts are prepared again from the registered key material on next use.
+ * The keyring is thread-safe and can be shared by builders, {@link DotenvxLoader} and the Jackson deserializer.
+ *
+ * @author linux_china
+ */
+@SuppressWarnings("unused")
+public class DotenvxKeyring {
+    private final int maxPreparedKeys;
+    private final Map<String, String> privateKeys = new ConcurrentHashMap<>();
+    private final Map<String, EciesPrivateKey> preparedKeys = new ConcurrentHashMap<>();
+
+    public DotenvxKeyring() {
+        this(1024);
+    }
+
+    /**
+     * create keyring
+     *
+     * @param maxPreparedKeys max count of prepared private key contexts kept in memory
+     */
+    public DotenvxKeyring(int maxPreparedKeys) {
+        if (maxPreparedKeys <= 0) {
+            throw new IllegalArgumentException("maxPreparedKeys must be positive: " + maxPreparedKeys);
+        }
+        this.maxPreparedKeys = maxPreparedKeys;
+    }
+
+    /**
+     * add private key, and the public key is derived from the private key
+     *
+     * @param privateKeyHex private key in hex
+     * @return this {@link DotenvxKeyring}
+     */
+    public DotenvxKeyring add(@NonNull String privateKeyHex) {
+        final EciesPrivateKey privateKey = new EciesPrivateKey(privateKeyHex);
+        final String publicKeyHex = privateKey.getPublicKeyHex();
+        privateKeys.put(publicKeyHex, privateKeyHex);
+        prepare(publicKeyHex, privateKey);
+        return this;
+    }
+
+    /**
+     * add key pair without deriving the public key
+     *
+     * @param publicKeyHex  compressed public key in hex
+     * @param privateKeyHex private key in hex
+     * @return this {@link DotenvxKeyring}
+     */
+    public DotenvxKeyring add(@NonNull String publicKeyHex, @NonNull String privateKeyHex) {
+        final String normalizedPublicKey = normalize(publicKeyHex);
+        privateKeys.put(normalizedPublicKey, privateKeyHex);
+        preparedKeys.remove(normalizedPublicKey);
+        return this;
+    }
+
+    /**
+     * remove the key pair
+     *
+     * @param publicKeyHex compressed public key in hex
+     * @return this {@link DotenvxKeyring}
+     */
+    public DotenvxKeyring remove(@NonNull String publicKeyHex) {
+        final String normalizedPublicKey = normalize(publicKeyHex);
+        privateKeys.remove(normalizedPublicKey);
+        preparedKeys.remove(normalizedPublicKey);
+        return this;
+    }
+
+    /**
+     * check the private key of the public key is in the keyring or not
+     *
+     * @param publicKeyHex compressed public key in hex
+     * @return true if present
+     */
+    public boolean contains(@NonNull String publicKeyHex) {
+        return privateKeys.containsKey(normalize(publicKeyHex));
+    }
+
+    /**
+     * get the prepared private key context of the public key
+     *
+     * @param publicKeyHex compressed public key in hex
+     * @return private key context, null if not found
+     */
+    @Nullable
+    public EciesPrivateKey get(@Nullable String publicKeyHex) {
+        if (publicKeyHex == null || publicKeyHex.isEmpty()) {
+            return null;
+        }
+        final String normalizedPublicKey = normalize(publicKeyHex);
+        EciesPrivateKey privateKey = preparedKeys.get(normalizedPublicKey);
+        if (privateKey == null) {
+            final String privateKeyHex = privateKeys.get(normalizedPublicKey);
+            if (privateKeyHex == null) {
+                return null;
+            }
+            privateKey = new EciesPrivateKey(privateKeyHex);
+            prepare(normalizedPublicKey, privateKey);
+        }
+        return privateKey;
+    }
+
+    /**
+     * count of key pairs
+     *
+     * @return key pair count
+     */
+    public int size() {
+        return privateKeys.size();
+    }
+
+    private void prepare(String publicKeyHex, EciesPrivateKey privateKey) {
+        if (preparedKeys.size() >= maxPreparedKeys) {
+            // evict an arbitrary prepared context, and the key material is still registered
+            final Iterator<String> iterator = preparedKeys.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        preparedKeys.put(publicKeyHex, privateKey);
+    }
+
+    private static String normalize(String publicKeyHex) {
+        return publicKeyHex.toLowerCase(Locale.ROOT);
+    }
+}
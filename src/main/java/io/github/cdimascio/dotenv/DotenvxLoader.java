@@ -7,19 +7,39 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * Dotenvx Loader is a Jakarta Config Loader implementation
+ * Dotenvx Loader is a Jakarta Config Loader implementation.
+ * The loader is immutable: {@link #path(String)} and {@link #keyring(DotenvxKeyring)} return new loaders,
+ * so one configured loader can be shared by multiple threads.
+ * The config file is loaded once per loader on first use, and all {@code load()} and {@link #entries(String)} calls
+ * share the decrypted entries and their key trie, so binding many sections doesn't read the file again.
+ * Create a new loader with {@link #path(String)} to reload the file.
+ * Keys are matched by path in both .env and .properties naming, so a `poolSize` field of the nested `db` config
+ * is bound from `DB_POOL_SIZE` or `db.pool.size`.
  *
  * @author linux_china
  */
 @SuppressWarnings("unchecked")
 public class DotenvxLoader implements Loader {
-    private String configFilePath;
-    private String extName;
+    private final String configFilePath;
+    private final DotenvxKeyring keyring;
+    private final DotenvxAccessTracker accessTracker;
+    private volatile Snapshot snapshot;
+
+    public DotenvxLoader() {
+        this(null, null, null);
+    }
+
+    private DotenvxLoader(String configFilePath, DotenvxKeyring keyring, DotenvxAccessTracker accessTracker) {
+        this.configFilePath = configFilePath;
+        this.keyring = keyring;
+        this.accessTracker = accessTracker;
+    }
 
     @Override
     public <T> T load(Class<T> clazz) {
@@ -27,57 +47,62 @@ public class DotenvxLoader implements Loader {
             return (T) this;
         }
         try {
-            Map<String, String> entries = entries();
+            final Snapshot snapshot = snapshot();
+            final Map<String, String> entries = snapshot.entries();
             // check the clazz is an interface or not
             if (clazz.isInterface()) {
-                Class<?>[] interfaces = new Class[]{clazz};
+                Class<?>[] interfaces = new Class<?>[]{clazz};
                 return (T) Proxy.newProxyInstance(
                         clazz.getClassLoader(),
                         interfaces,
-                        new DotenvxJakartaConfigInvocationHandler(entries)
+                        new DotenvxJakartaConfigInvocationHandler(entries, snapshot.keyTrie())
                 );
             }
-            // check the clazz is a record or not
-            if (clazz.isRecord()) {
-                // If the class is a record, we need to create an instance using the record constructor
-                RecordComponent[] components = clazz.getRecordComponents();
-                Class<?>[] componentTypes = new Class[components.length];
-                Object[] args = new Object[components.length];
-                for (int i = 0; i < components.length; i++) {
-                    String fieldName = components[i].getName();
-                    componentTypes[i] = components[i].getType();
-                    String value = entries.get(getConfigKeyName(fieldName));
-                    if (value != null) {
-                        args[i] = convertValue(value, componentTypes[i]);
-                    }
-                }
-                return clazz.getConstructor(componentTypes).newInstance(args);
-            }
-            // normal POJO
-            final T instance = clazz.getDeclaredConstructor().newInstance();
-            // inject fields to Map instance
-            if (instance instanceof Map) {
+            if (!clazz.isRecord() && Map.class.isAssignableFrom(clazz)) {
                 // If the class is a Map, populate it directly
-                Map<String, String> mapInstance = (Map<String, String>) instance;
-                mapInstance.putAll(entries);
-            }
-            // inject fields to the class instance
-            for (Field declaredField : clazz.getDeclaredFields()) {
-                final String fieldName = declaredField.getName();
-                final String value = entries.get(getConfigKeyName(fieldName));
-                if (value != null) {
-                    declaredField.setAccessible(true);
-                    Object fieldValue = convertValue(value, declaredField.getType());
-                    declaredField.set(instance, fieldValue);
-                }
+                final T instance = clazz.getDeclaredConstructor().newInstance();
+                ((Map<String, String>) instance).putAll(entries);
+                return instance;
             }
-            return instance;
+            // records and POJOs, and nested records, POJOs and maps are bound by key path
+            return (T) DotenvxConfigBinder.bind(snapshot.keyTrie(), clazz);
         } catch (Exception ignore) {
 
         }
         return null;
     }
 
+    /**
+     * bind the section of the prefix to a record, POJO or map, such as `DB_` or `db.` for a `DbConfig` record
+     *
+     * @param prefix key prefix in any naming
+     * @param clazz  config class
+     * @param <T>    config type
+     * @return config object, null if the section is missing or failed to bind
+     */
+    public <T> T load(String prefix, Class<T> clazz) {
+        try {
+            return (T) DotenvxConfigBinder.bind(snapshot().keyTrie().subTrie(prefix), clazz);
+        } catch (Exception ignore) {
+
+        }
+        return null;
+    }
+
+    /**
+     * entries under the prefix with original keys, such as all `DB_*` keys for `DB_` or `db`
+     *
+     * @param prefix key prefix in any naming
+     * @return entries, empty if not found
+     */
+    public Map<String, String> entries(String prefix) {
+        try {
+            return snapshot().keyTrie().withPrefix(prefix);
+        } catch (Exception e) {
+            throw new DotenvException("Failed to load entries: " + e.getMessage());
+        }
+    }
+
     @Override
     public <T> T load(TypeToken<T> type) {
         final Type javaType = type.type();
@@ -90,65 +115,69 @@ public class DotenvxLoader implements Loader {
         return null;
     }
 
+    /**
+     * create a loader for the config file, and this loader is unchanged
+     *
+     * @param path config file path
+     * @return new loader
+     */
     @Override
-    public Loader path(String path) {
-        this.configFilePath = path;
-        if (configFilePath.endsWith(".properties")) {
-            this.extName = "properties";
-        } else if (configFilePath.startsWith(".env")) {
-            this.extName = "env";
-        }
-        return this;
+    public DotenvxLoader path(String path) {
+        return new DotenvxLoader(path, keyring, accessTracker);
     }
 
-    private Object convertValue(String value, Class<?> type) {
-        if (type == String.class) {
-            return value;
-        } else if (type == int.class || type == Integer.class) {
-            return Integer.parseInt(value);
-        } else if (type == boolean.class || type == Boolean.class) {
-            return Boolean.parseBoolean(value);
-        } else if (type == long.class || type == Long.class) {
-            return Long.parseLong(value);
-        } else if (type == double.class || type == Double.class) {
-            return Double.parseDouble(value);
-        }
-        throw new UnsupportedOperationException("Unsupported type: " + type.getName());
+    /**
+     * create a loader with the keyring to pick the private key by the public key of the config file, and this loader is unchanged
+     *
+     * @param keyring keyring
+     * @return new loader
+     */
+    public DotenvxLoader keyring(DotenvxKeyring keyring) {
+        return new DotenvxLoader(configFilePath, keyring, accessTracker);
     }
 
-    private String getConfigKeyName(String fieldName) {
-        StringBuilder sb = new StringBuilder();
-        if ("properties".equals(extName)) {
-            for (char c : fieldName.toCharArray()) {
-                if (Character.isUpperCase(c)) {
-                    sb.append('.').append(Character.toLowerCase(c));
-                } else {
-                    sb.append(c);
-                }
-            }
-        } else {
-            for (char c : fieldName.toCharArray()) {
-                if (Character.isUpperCase(c)) {
-                    sb.append('_');
+    /**
+     * create a loader which tracks key reads of the bound config objects, and this loader is unchanged.
+     * Records and POJOs are bound eagerly, so all their fields are counted as read at bind time,
+     * and only reads through config interfaces and {@link #entries(String)} maps are tracked per call.
+     *
+     * @param accessTracker access tracker
+     * @return new loader
+     */
+    public DotenvxLoader accessTracker(DotenvxAccessTracker accessTracker) {
+        return new DotenvxLoader(configFilePath, keyring, accessTracker);
+    }
+
+    private Snapshot snapshot() throws Exception {
+        Snapshot result = snapshot;
+        if (result == null) {
+            synchronized (this) {
+                result = snapshot;
+                if (result == null) {
+                    final Map<String, String> entries = entries();
+                    result = new Snapshot(entries, DotenvxKeyTrie.of(entries));
+                    snapshot = result;
                 }
-                sb.append(Character.toUpperCase(c));
             }
         }
-        return sb.toString();
+        return result;
     }
 
+    /**
+     * load the entries of the config file, and only the keys declared in the file are registered to the access tracker,
+     * not the environment variables merged into .env entries
+     */
     private Map<String, String> entries() throws Exception {
+        final Map<String, String> entries;
+        final Collection<String> declaredKeys;
         if (this.configFilePath == null) {
-            return Dotenvx.load().entries().stream()
-                    .collect(java.util.stream.Collectors.toMap(DotenvEntry::getKey, DotenvEntry::getValue));
+            final Dotenv dotenv = Dotenvx.configure().keyring(keyring).load();
+            entries = toMap(dotenv.entries());
+            declaredKeys = dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE).stream().map(DotenvEntry::getKey).toList();
         } else if (configFilePath.startsWith("classpath:") && configFilePath.endsWith(".properties")) {
-            Properties properties = new DotenvxPropertiesBuilder()
-                    .filename(configFilePath).load();
-            return properties.entrySet().stream()
-                    .collect(Collectors.toMap(
-                            entry -> entry.getKey().toString(),
-                            entry -> entry.getValue().toString()
-                    ));
+            entries = new DotenvxPropertiesBuilder()
+                    .filename(configFilePath).keyring(keyring).loadAsMap();
+            declaredKeys = entries.keySet();
         } else {
             final Path filePath = Paths.get(configFilePath).toAbsolutePath();
             if (!filePath.toFile().exists()) {
@@ -157,31 +186,44 @@ public class DotenvxLoader implements Loader {
             String directory = filePath.getParent().toString();
             String fileName = filePath.toFile().getName();
             if (this.configFilePath.endsWith(".properties")) {
-                final Properties properties = new DotenvxPropertiesBuilder().directory(directory).filename(fileName).load();
-                return properties.entrySet().stream()
-                        .collect(Collectors.toMap(
-                                entry -> entry.getKey().toString(),
-                                entry -> entry.getValue().toString()
-                        ));
+                entries = new DotenvxPropertiesBuilder().directory(directory).filename(fileName).keyring(keyring).loadAsMap();
+                declaredKeys = entries.keySet();
             } else {
                 DotenvxBuilder builder = Dotenvx.configure()
                         .directory(directory)
                         .filename(fileName)
                         .ignoreIfMissing()
+                        .keyring(keyring)
                         .systemProperties();
                 final Dotenv dotenv = builder.load();
-                return dotenv.entries().stream()
-                        .collect(java.util.stream.Collectors.toMap(DotenvEntry::getKey, DotenvEntry::getValue));
+                entries = toMap(dotenv.entries());
+                declaredKeys = dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE).stream().map(DotenvEntry::getKey).toList();
             }
-
         }
+        return accessTracker == null ? entries : accessTracker.track(entries, declaredKeys);
+    }
+
+    private static Map<String, String> toMap(Set<DotenvEntry> entries) {
+        return entries.stream().collect(Collectors.toMap(DotenvEntry::getKey, DotenvEntry::getValue, (a, b) -> b));
+    }
+
+    /**
+     * loaded entries, tracked if the loader has an access tracker, and the key trie over them
+     */
+    private record Snapshot(Map<String, String> entries, DotenvxKeyTrie keyTrie) {
     }
 
     public class DotenvxJakartaConfigInvocationHandler implements InvocationHandler {
         public Map<String, String> entries;
+        private final DotenvxKeyTrie keyTrie;
 
         public DotenvxJakartaConfigInvocationHandler(Map<String, String> entries) {
+            this(entries, DotenvxKeyTrie.of(entries));
+        }
+
+        DotenvxJakartaConfigInvocationHandler(Map<String, String> entries, DotenvxKeyTrie keyTrie) {
             this.entries = entries;
+            this.keyTrie = keyTrie;
         }
 
         @Override
@@ -191,13 +233,7 @@ public class DotenvxLoader implements Loader {
                 return MethodHandles.lookup().unreflectSpecial(method, method.getDeclaringClass())
                         .bindTo(proxy).invokeWithArguments(args);
             }
-            String methodName = method.getName();
-            String keyName = getConfigKeyName(methodName);
-            if (!entries.containsKey(keyName)) {
-                return null;
-            }
-            String value = entries.get(keyName);
-            return convertValue(value, method.getReturnType());
+            return DotenvxConfigBinder.bind(keyTrie.subTrie(DotenvxKeyTrie.nameSegments(method.getName())), method.getGenericReturnType());
         }
     }
 
@@ -0,0 +1,89 @@
+package io.github.cdimascio.dotenv;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.ecies.EciesPrivateKey;
+import io.github.cdimascio.ecies.EciesPublicKey;
+import io.github.cdimascio.json.DotenvxJacksonModule;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pre-warm of the crypto stack, JSON serializers and config binding on a background daemon thread with synthetic data:
+ * BouncyCastle provider and SecureRandom are initialized, classes are loaded,
+ * and hot paths are run enough times for JIT compilation, so the first real requests are not slower than steady state.
+ * Only one pre-warm runs per JVM, and a failed pre-warm can be started again.
+ * Callers get a copy of the shared future, so completing or cancelling it doesn't affect the pre-warm.
+ *
+ * @author linux_china
+ */
+final class DotenvxPrewarm {
+    static final int DEFAULT_ITERATIONS = 200;
+    private static CompletableFuture<Void> future;
+
+    private DotenvxPrewarm() {
+    }
+
+    static synchronized CompletableFuture<Void> start(int iterations) {
+        if (future == null || future.isCompletedExceptionally()) {
+            final CompletableFuture<Void> result = new CompletableFuture<>();
+            final Thread thread = new Thread(() -> {
+                try {
+                    run(Math.max(1, iterations));
+                    result.complete(null);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }, "dotenvx-prewarm");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            future = result;
+            thread.start();
+        }
+        return future.copy();
+    }
+
+    private static void run(int iterations) throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        final String publicKeyHex = keyPair.getPublicHex(true);
+        final String privateKeyHex = keyPair.getPrivateHex();
+        // static API with key parsing per call
+        if (!"prewarm".equals(Ecies.decrypt(privateKeyHex, Ecies.encrypt(publicKeyHex, "prewarm")))) {
+            throw new DotenvException("Failed to pre-warm ECIES");
+        }
+        // prepared key contexts
+        final EciesPublicKey publicKey = new EciesPublicKey(publicKeyHex);
+        final EciesPrivateKey privateKey = new EciesPrivateKey(privateKeyHex);
+        for (int i = 0; i < iterations; i++) {
+            privateKey.decrypt(publicKey.encrypt("value-" + i));
+        }
+        // JSON serializer and deserializer
+        final ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new DotenvxJacksonModule(publicKey, privateKey))
+                .build();
+        final PrewarmBean bean = new PrewarmBean();
+        for (int i = 0; i < iterations; i++) {
+            bean.secret = "private:secret-" + i;
+            objectMapper.readValue(objectMapper.writeValueAsString(bean), PrewarmBean.class);
+        }
+        // config binding
+        final Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("PREWARM_URL", "jdbc:h2:mem");
+        entries.put("PREWARM_POOL_SIZE", "8");
+        entries.put("PREWARM_ENABLED", "true");
+        for (int i = 0; i < iterations; i++) {
+            DotenvxConfigBinder.bind(DotenvxKeyTrie.of(entries).subTrie("prewarm"), PrewarmConfig.class);
+        }
+    }
+
+    static class PrewarmBean {
+        public String secret;
+    }
+
+    record PrewarmConfig(String url, int poolSize, boolean enabled) {
+    }
+}
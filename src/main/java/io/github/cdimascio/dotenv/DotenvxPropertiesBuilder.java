@@ -2,26 +2,54 @@ package io.github.cdimascio.dotenv;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.ecies.EciesCompression;
+import io.github.cdimascio.ecies.EciesEnvelope;
+import io.github.cdimascio.ecies.EciesPrivateKey;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.Properties;
 
 /**
  * Builds and loads properties instance with dotenvx support.
+ * {@link #load()} doesn't change the configuration, so a configured builder can be shared and loaded by multiple threads.
+ * The builder itself is mutable and not synchronized: configure it in one thread and publish it safely, such as with a final field,
+ * and don't call the setters while other threads are loading.
  *
  */
 @SuppressWarnings("unused")
 public class DotenvxPropertiesBuilder implements DotenvxBaseBuilder {
-    public static final ObjectMapper objectMapper = new ObjectMapper();
     private String privateKeyHex = null;
     private String filename = "application.properties";
     private String directoryPath = ".";
+    private DotenvxKeyring keyring = null;
+    private String signerPublicKeyHex = null;
+    private String signatureBase64 = null;
+    private boolean expandVariables = false;
+    private DotenvxAccessTracker accessTracker = null;
+    private Predicate<String> includeFilter = null;
+    private Predicate<String> excludeFilter = null;
+
+    /**
+     * shared ObjectMapper, created on first call
+     *
+     * @return object mapper
+     * @deprecated replaced the eager `objectMapper` field, and use your own ObjectMapper instead
+     */
+    @Deprecated
+    public static ObjectMapper objectMapper() {
+        return ObjectMapperHolder.OBJECT_MAPPER;
+    }
 
     /**
      * Sets the directory containing the .properties file.
@@ -53,21 +81,171 @@ public class DotenvxPropertiesBuilder implements DotenvxBaseBuilder {
         return this;
     }
 
+    /**
+     * set the keyring, and the private key is picked from the keyring by the public key of the file
+     * if no private key is set explicitly.
+     *
+     * @param keyring keyring shared by builders
+     */
+    public DotenvxPropertiesBuilder keyring(DotenvxKeyring keyring) {
+        this.keyring = keyring;
+        return this;
+    }
+
+    /**
+     * Expands `${VAR}` and `${VAR:-default}` references in values, and a reference is resolved from the entries of the file,
+     * then from environment variables. Encrypted values are decrypted before expansion.
+     *
+     */
+    public DotenvxPropertiesBuilder expandVariables() {
+        this.expandVariables = true;
+        return this;
+    }
+
+    /**
+     * Only loads the keys matching the filter, and filtered-out entries are never decrypted, retained or exported to system properties.
+     * Keys are included if they match any include filter.
+     *
+     * @param filter key filter, such as {@link DotenvxKeyFilter#prefix(String...)}
+     * @return this {@link DotenvxPropertiesBuilder}
+     */
+    public DotenvxPropertiesBuilder include(final Predicate<String> filter) {
+        this.includeFilter = includeFilter == null ? filter : includeFilter.or(filter);
+        return this;
+    }
+
+    /**
+     * Skips the keys matching the filter, see {@link #include(Predicate)}
+     *
+     * @param filter key filter, such as {@link DotenvxKeyFilter#glob(String...)}
+     * @return this {@link DotenvxPropertiesBuilder}
+     */
+    public DotenvxPropertiesBuilder exclude(final Predicate<String> filter) {
+        this.excludeFilter = excludeFilter == null ? filter : excludeFilter.or(filter);
+        return this;
+    }
+
+    /**
+     * Tracks property reads of the loaded entries to find unused keys.
+     *
+     * @param accessTracker access tracker
+     */
+    public DotenvxPropertiesBuilder trackAccess(DotenvxAccessTracker accessTracker) {
+        this.accessTracker = accessTracker;
+        return this;
+    }
+
+    /**
+     * Verifies the detached signature of the .properties file before loading, and the signature is read from the `.sig` file next to it,
+     * such as `application.properties.sig`.
+     *
+     * @param signerPublicKeyHex signer's compressed public key in hexadecimal format
+     */
+    public DotenvxPropertiesBuilder verifySignature(String signerPublicKeyHex) {
+        this.signerPublicKeyHex = signerPublicKeyHex;
+        return this;
+    }
+
+    /**
+     * Verifies the detached signature of the .properties file before loading.
+     *
+     * @param signerPublicKeyHex signer's compressed public key in hexadecimal format
+     * @param signatureBase64    SHA256withECDSA signature of the .properties file in base64
+     */
+    public DotenvxPropertiesBuilder verifySignature(String signerPublicKeyHex, String signatureBase64) {
+        this.signerPublicKeyHex = signerPublicKeyHex;
+        this.signatureBase64 = signatureBase64;
+        return this;
+    }
+
     /**
      * Load the contents of .properties into the virtual environment.
      *
-     * @return a new {@link Dotenv} instance
+     * @return a new {@link Properties} instance
      * @throws DotenvException when an error occurs
      */
     public Properties load() throws DotenvException {
-        Properties properties = new Properties();
-        if (this.filename.startsWith("classpath:")) {
+        final Properties properties = new Properties();
+        properties.putAll(loadEntries());
+        return accessTracker == null ? properties : accessTracker.track(properties);
+    }
+
+    /**
+     * Load the contents of .properties as an immutable map in file order.
+     * The file is scanned once into an index, and only the indexed encrypted values are decrypted, without a synchronized {@link Properties} copy.
+     *
+     * @return an immutable map
+     * @throws DotenvException when an error occurs
+     */
+    public Map<String, String> loadAsMap() throws DotenvException {
+        final Map<String, String> entries = loadEntries();
+        return accessTracker == null ? entries : accessTracker.track(entries);
+    }
+
+    /**
+     * Load .properties content from the input stream, with the same parsing and decryption as {@link #load()}, and the stream is not closed.
+     * The filename is only used for the profile name, such as `application-prod.properties`, and the private key lookup.
+     *
+     * @param input .properties content in ISO-8859-1
+     * @return a new {@link Properties} instance
+     * @throws DotenvException when an error occurs
+     */
+    public Properties load(InputStream input) throws DotenvException {
+        final Properties properties = new Properties();
+        properties.putAll(loadEntries(input));
+        return accessTracker == null ? properties : accessTracker.track(properties);
+    }
+
+    /**
+     * Load .properties content from the input stream as an immutable map in file order, see {@link #load(InputStream)}
+     *
+     * @param input .properties content in ISO-8859-1
+     * @return an immutable map
+     * @throws DotenvException when an error occurs
+     */
+    public Map<String, String> loadAsMap(InputStream input) throws DotenvException {
+        final Map<String, String> entries = loadEntries(input);
+        return accessTracker == null ? entries : accessTracker.track(entries);
+    }
+
+    private Map<String, String> loadEntries(InputStream input) throws DotenvException {
+        final DotenvxIndex index = DotenvxIndex.forProperties(filename).keyFilter(DotenvxKeyFilter.compose(includeFilter, excludeFilter))
+                .keepFilteredValues(expandVariables);
+        try {
+            final byte[] content = input.readAllBytes();
+            if (signerPublicKeyHex != null && !signerPublicKeyHex.isEmpty()) {
+                if (signatureBase64 == null) {
+                    throw new DotenvException("Signature is required to verify properties from input stream");
+                }
+                verifySignature(filename, new ByteArrayInputStream(content), signerPublicKeyHex, signatureBase64);
+            }
+            DotenvxPropertiesReader.read(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.ISO_8859_1)), index::accepts, index::add);
+        } catch (DotenvException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DotenvException("Failed to load properties from input stream: " + e.getMessage());
+        }
+        return decryptEntries(index);
+    }
+
+    private Map<String, String> loadEntries() throws DotenvException {
+        final DotenvxIndex index = DotenvxIndex.forProperties(filename).keyFilter(DotenvxKeyFilter.compose(includeFilter, excludeFilter))
+                .keepFilteredValues(expandVariables);
+        if (signerPublicKeyHex != null && !signerPublicKeyHex.isEmpty()) {
+            // the verified buffer is parsed, so the file can't be changed between verification and parsing
+            final byte[] content = readVerifiedContent();
+            try {
+                DotenvxPropertiesReader.read(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.ISO_8859_1)), index::accepts, index::add);
+            } catch (Exception e) {
+                throw new DotenvException("Failed to load properties: " + filename);
+            }
+        } else if (this.filename.startsWith("classpath:")) {
             String classpathFile = this.filename.substring("classpath:".length());
             try (var inputStream = getClass().getClassLoader().getResourceAsStream(classpathFile)) {
                 if (inputStream == null) {
                     throw new DotenvException("File not found in classpath: " + classpathFile);
                 }
-                properties.load(inputStream);
+                DotenvxPropertiesReader.read(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.ISO_8859_1)), index::accepts, index::add);
             } catch (Exception e) {
                 throw new DotenvException("Failed to load properties from classpath: " + classpathFile);
             }
@@ -76,39 +254,32 @@ public class DotenvxPropertiesBuilder implements DotenvxBaseBuilder {
             if (!Files.exists(filePath)) {
                 throw new DotenvException("File not found: " + filePath);
             }
-            try (var inputStream = Files.newInputStream(filePath)) {
-                properties.load(inputStream);
+            try (var reader = Files.newBufferedReader(filePath, StandardCharsets.ISO_8859_1)) {
+                DotenvxPropertiesReader.read(reader, index::accepts, index::add);
             } catch (Exception e) {
                 throw new DotenvException("Failed to load properties from file: " + filePath);
             }
         }
-        String publicKeyHex = getPublicKeyHex(properties);
-        String profileName = null;
-        if (filename.contains("-")) {
-            profileName = filename.substring(filename.indexOf("-") + 1, filename.lastIndexOf('.'));
-        }
-        boolean isEncrypted = properties.entrySet().stream()
-                .anyMatch(entry -> {
-                    String value = entry.getValue().toString();
-                    return value.startsWith("encrypted:");
-                });
-        if (isEncrypted) {
-            String privateKey = getDotenvxPrivateKey(profileName, publicKeyHex);
-            if (privateKey == null || privateKey.isEmpty()) {
-                throw new DotenvException("No DOTENV_PRIVATE_KEY found in environment variables or .env.keys file.");
-            }
-            List<DotenvEntry> decryptedEntries = new ArrayList<>();
-            for (Map.Entry<Object, Object> entry : properties.entrySet()) {
-                String value = entry.getValue().toString();
-                if (value.startsWith("encrypted:")) {
-                    final String encryptedText = value.substring(10);
-                    properties.put(entry.getKey(), decryptItem(privateKey, encryptedText));
-                }
-            }
+        return decryptEntries(index);
+    }
+
+    private Map<String, String> decryptEntries(DotenvxIndex index) throws DotenvException {
+        if (expandVariables) {
+            index.expand(index.hasEncrypted() ? decryptor(index) : null);
+        } else if (index.hasEncrypted()) {
+            index.decrypt(decryptor(index));
         }
-        return properties;
+        return index.toMap();
     }
 
+    /**
+     * get the first non-empty public key of the properties
+     *
+     * @param properties properties
+     * @return public key in hex, null if not found
+     * @deprecated public keys are captured while parsing, and this method is not used by {@link #load()} any more
+     */
+    @Deprecated
     public String getPublicKeyHex(Properties properties) {
         for (String key : properties.stringPropertyNames()) {
             if (key.startsWith("dotenv.public.key")) {
@@ -124,23 +295,93 @@ public class DotenvxPropertiesBuilder implements DotenvxBaseBuilder {
     public String getDotenvxPrivateKey(String profileName, String publicKeyHex) {
         if (this.privateKeyHex != null && !this.privateKeyHex.isEmpty()) {
             return this.privateKeyHex;
-        } else {
-            // load the private key from the global store: .env.keys.json
-            if (publicKeyHex != null && !publicKeyHex.isEmpty()) {
-                String privateKey = getPrivateKeyFromGlobalStore(publicKeyHex);
-                if (privateKey != null && !privateKey.isEmpty()) {
-                    this.privateKeyHex = trimPrivateKey(privateKey);
-                    return this.privateKeyHex;
+        }
+        // load the private key from the global store: .env.keys.json
+        if (publicKeyHex != null && !publicKeyHex.isEmpty()) {
+            String privateKey = getPrivateKeyFromGlobalStore(publicKeyHex);
+            if (privateKey != null && !privateKey.isEmpty()) {
+                return trimPrivateKey(privateKey);
+            }
+        }
+        return trimPrivateKey(DotenvxBuilder.getPrivateKeyFromEnvOrPath(this.directoryPath, profileName));
+    }
+
+    /**
+     * read the file or classpath resource, and verify its detached signature
+     *
+     * @return verified content
+     */
+    private byte[] readVerifiedContent() throws DotenvException {
+        final byte[] content;
+        String signature = signatureBase64;
+        if (this.filename.startsWith("classpath:")) {
+            String classpathFile = this.filename.substring("classpath:".length());
+            try (var inputStream = getClass().getClassLoader().getResourceAsStream(classpathFile)) {
+                if (inputStream == null) {
+                    throw new DotenvException("File not found in classpath: " + classpathFile);
                 }
+                content = inputStream.readAllBytes();
+                if (signature == null) {
+                    try (var signatureStream = getClass().getClassLoader().getResourceAsStream(classpathFile + ".sig")) {
+                        if (signatureStream == null) {
+                            throw new DotenvException("Signature file not found in classpath: " + classpathFile + ".sig");
+                        }
+                        signature = new String(signatureStream.readAllBytes(), StandardCharsets.UTF_8);
+                    }
+                }
+            } catch (IOException e) {
+                throw new DotenvException("Failed to read properties from classpath: " + classpathFile);
+            }
+        } else {
+            Path filePath = Paths.get(this.directoryPath, this.filename);
+            if (!Files.exists(filePath)) {
+                throw new DotenvException("File not found: " + filePath);
+            }
+            if (signature == null) {
+                signature = readSignatureFile(Paths.get(this.directoryPath, this.filename + ".sig"));
+            }
+            try {
+                content = Files.readAllBytes(filePath);
+            } catch (IOException e) {
+                throw new DotenvException("Failed to read properties from file: " + filePath);
             }
-            this.privateKeyHex = trimPrivateKey(DotenvxBuilder.getPrivateKeyFromEnvOrPath(this.directoryPath, profileName));
         }
-        return this.privateKeyHex;
+        verifySignature(this.filename, new ByteArrayInputStream(content), signerPublicKeyHex, signature);
+        return content;
     }
 
-    private String decryptItem(String privateKeyHex, String item) throws DotenvException {
+    private EciesPrivateKey resolvePrivateKey(DotenvxIndex index) throws DotenvException {
+        if ((this.privateKeyHex == null || this.privateKeyHex.isEmpty()) && keyring != null) {
+            final EciesPrivateKey privateKey = keyring.get(index.publicKeyHex());
+            if (privateKey != null) {
+                return privateKey;
+            }
+        }
+        String privateKey = getDotenvxPrivateKey(index.profileName(), index.publicKeyHex());
+        if (privateKey == null || privateKey.isEmpty()) {
+            throw new DotenvException("No DOTENV_PRIVATE_KEY found in environment variables or .env.keys file.");
+        }
         try {
-            return Ecies.decrypt(privateKeyHex, item);
+            return new EciesPrivateKey(privateKey);
+        } catch (Exception e) {
+            throw new DotenvException("Invalid DOTENV_PRIVATE_KEY: " + e.getMessage());
+        }
+    }
+
+    private UnaryOperator<String> decryptor(DotenvxIndex index) throws DotenvException {
+        final EciesPrivateKey privateKey = resolvePrivateKey(index);
+        return encryptedText -> decryptItem(privateKey, encryptedText);
+    }
+
+    private String decryptItem(EciesPrivateKey privateKey, String item) throws DotenvException {
+        try {
+            if (item.startsWith(DotenvxIndex.ENVELOPE_FORMAT)) {
+                return EciesEnvelope.open(item.substring(DotenvxIndex.ENVELOPE_FORMAT.length()), privateKey);
+            }
+            if (item.startsWith(DotenvxIndex.COMPRESSED_FORMAT)) {
+                return EciesCompression.decryptCompressed(privateKey, item.substring(DotenvxIndex.COMPRESSED_FORMAT.length()));
+            }
+            return privateKey.decrypt(item);
         } catch (Exception e) {
             throw new DotenvException("Failed to decrypt item: " + item);
         }
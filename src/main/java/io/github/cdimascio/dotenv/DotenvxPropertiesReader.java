@@ -0,0 +1,179 @@
+package io.github.cdimascio.dotenv;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Single-pass reader for the .properties format, with the same syntax as {@link java.util.Properties#load(java.io.Reader)}:
+ * comments, line continuation, `=`/`:`/whitespace separators and escape sequences.
+ * Entries are pushed to the consumer in file order, without an intermediate Properties instance.
+ *
+ * @author linux_china
+ */
+final class DotenvxPropertiesReader {
+
+    private DotenvxPropertiesReader() {
+    }
+
+    /**
+     * read all entries from the reader
+     *
+     * @param reader   buffered reader, not closed by this method
+     * @param consumer entry consumer with key and value
+     * @throws IOException              I/O exception
+     * @throws IllegalArgumentException malformed \\uxxxx encoding
+     */
+    static void read(BufferedReader reader, BiConsumer<String, String> consumer) throws IOException {
+        read(reader, null, consumer);
+    }
+
+    /**
+     * read entries accepted by the key filter from the reader, and values of other entries are not decoded
+     *
+     * @param reader    buffered reader, not closed by this method
+     * @param keyFilter key filter, null to accept all keys
+     * @param consumer  entry consumer with key and value
+     * @throws IOException              I/O exception
+     * @throws IllegalArgumentException malformed \\uxxxx encoding
+     */
+    static void read(BufferedReader reader, @Nullable Predicate<String> keyFilter, BiConsumer<String, String> consumer) throws IOException {
+        String line;
+        StringBuilder logicalLine = new StringBuilder();
+        boolean continued = false;
+        while ((line = reader.readLine()) != null) {
+            int start = skipWhitespace(line, 0);
+            if (!continued) {
+                if (start == line.length()) {
+                    continue;
+                }
+                char first = line.charAt(start);
+                if (first == '#' || first == '!') {
+                    continue;
+                }
+            }
+            logicalLine.append(line, start, line.length());
+            continued = endsWithContinuation(logicalLine);
+            if (continued) {
+                logicalLine.setLength(logicalLine.length() - 1);
+            } else {
+                parseLine(logicalLine, keyFilter, consumer);
+                logicalLine.setLength(0);
+            }
+        }
+        if (continued) {
+            parseLine(logicalLine, keyFilter, consumer);
+        }
+    }
+
+    private static void parseLine(CharSequence line, @Nullable Predicate<String> keyFilter, BiConsumer<String, String> consumer) {
+        final int length = line.length();
+        int keyEnd = length;
+        int valueStart = length;
+        boolean hasSeparator = false;
+        boolean escaped = false;
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '=' || c == ':') {
+                keyEnd = i;
+                valueStart = i + 1;
+                hasSeparator = true;
+                break;
+            } else if (isWhitespace(c)) {
+                keyEnd = i;
+                valueStart = i + 1;
+                break;
+            }
+        }
+        valueStart = skipWhitespace(line, valueStart);
+        if (!hasSeparator && valueStart < length) {
+            char c = line.charAt(valueStart);
+            if (c == '=' || c == ':') {
+                valueStart = skipWhitespace(line, valueStart + 1);
+            }
+        }
+        final String key = unescape(line, 0, keyEnd);
+        if (keyFilter == null || keyFilter.test(key)) {
+            consumer.accept(key, unescape(line, valueStart, length));
+        }
+    }
+
+    private static boolean endsWithContinuation(CharSequence line) {
+        int backslashes = 0;
+        for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return (backslashes & 1) == 1;
+    }
+
+    private static int skipWhitespace(CharSequence line, int offset) {
+        while (offset < line.length() && isWhitespace(line.charAt(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    /**
+     * unescape the raw value of the .properties file
+     */
+    static String unescape(CharSequence value) {
+        return unescape(value, 0, value.length());
+    }
+
+    private static String unescape(CharSequence line, int start, int end) {
+        int backslash = -1;
+        for (int i = start; i < end; i++) {
+            if (line.charAt(i) == '\\') {
+                backslash = i;
+                break;
+            }
+        }
+        if (backslash < 0) {
+            return line.subSequence(start, end).toString();
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        sb.append(line, start, backslash);
+        for (int i = backslash; i < end; i++) {
+            char c = line.charAt(i);
+            if (c != '\\' || i + 1 >= end) {
+                sb.append(c);
+                continue;
+            }
+            c = line.charAt(++i);
+            switch (c) {
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'n' -> sb.append('\n');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (i + 4 >= end) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    int value = 0;
+                    for (int j = 1; j <= 4; j++) {
+                        int digit = Character.digit(line.charAt(i + j), 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        value = (value << 4) + digit;
+                    }
+                    sb.append((char) value);
+                    i += 4;
+                }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.ecies.EciesCompression;
+import io.github.cdimascio.ecies.EciesEnvelope;
+import io.github.cdimascio.ecies.EciesPublicKey;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Encrypts plaintext values of a .env or .properties file in place, like dotenvx `encrypt` and `set` commands.
+ * Lines, comments and ordering are preserved, values are encrypted in parallel with one prepared public key,
+ * and the file is written atomically.
+ *
+ * <pre>{@code
+ * new DotenvxWriter()
+ *         .set("DB_PASSWORD", "secret")
+ *         .write(Paths.get(".env"));
+ * }</pre>
+ *
+ * @author linux_china
+ */
+@SuppressWarnings("unused")
+public class DotenvxWriter {
+    private String publicKeyHex = null;
+    private final Set<String> keys = new HashSet<>();
+    private final Map<String, String> newValues = new LinkedHashMap<>();
+    private final List<String> recipients = new ArrayList<>();
+    private int compressionThreshold = -1;
+
+    /**
+     * set the public key, and the default is the `DOTENV_PUBLIC_KEY` or `dotenv.public.key` in the file.
+     * A new key pair is generated if neither is present.
+     *
+     * @param publicKeyHex public key in hexadecimal format
+     * @return this {@link DotenvxWriter}
+     */
+    public DotenvxWriter publicKey(String publicKeyHex) {
+        this.publicKeyHex = publicKeyHex;
+        return this;
+    }
+
+    /**
+     * only encrypt the plaintext values of the keys, and the default is all plaintext values.
+     *
+     * @param keys key names
+     * @return this {@link DotenvxWriter}
+     */
+    public DotenvxWriter keys(String... keys) {
+        this.keys.addAll(Arrays.asList(keys));
+        return this;
+    }
+
+    /**
+     * write values as `encrypted:envelope:` for the public key of the file and the extra recipients, such as public keys of other environments:
+     * the value is encrypted once with a random data key, and only the data key is encrypted for every recipient.
+     *
+     * @param publicKeyHexes public keys of extra recipients in hexadecimal format
+     * @return this {@link DotenvxWriter}
+     * @see EciesEnvelope
+     */
+    public DotenvxWriter recipients(String... publicKeyHexes) {
+        this.recipients.addAll(Arrays.asList(publicKeyHexes));
+        return this;
+    }
+
+    /**
+     * compress values of {@link EciesCompression#DEFAULT_THRESHOLD} bytes or more before encryption, and write them as `encrypted:compressed:`
+     *
+     * @return this {@link DotenvxWriter}
+     */
+    public DotenvxWriter compress() {
+        return compress(EciesCompression.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * compress values of the threshold size or more before encryption, and write them as `encrypted:compressed:`
+     *
+     * @param threshold min size in bytes of the UTF-8 value to compress
+     * @return this {@link DotenvxWriter}
+     */
+    public DotenvxWriter compress(int threshold) {
+        this.compressionThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * set the value of the key, and the value is encrypted. The entry is appended if the key is not in the file.
+     * Keys of .env files may only contain letters, digits, `_`, `.` and `-`, and keys of .properties files are escaped.
+     *
+     * @param key   key name
+     * @param value plaintext value
+     * @return this {@link DotenvxWriter}
+     * @throws DotenvException the key is empty or contains line breaks
+     */
+    public DotenvxWriter set(@NonNull String key, @NonNull String value) throws DotenvException {
+        if (key.isEmpty() || key.indexOf('\n') >= 0 || key.indexOf('\r') >= 0) {
+            throw new DotenvException("Invalid key: " + key);
+        }
+        this.newValues.put(key, value);
+        return this;
+    }
+
+    /**
+     * encrypt the values and write the file, and the file is created if it doesn't exist
+     *
+     * @param file .env or .properties file
+     * @return write result
+     * @throws DotenvException when an error occurs, such as an invalid .env key, and the file is untouched
+     */
+    @NonNull
+    public Result write(@NonNull Path file) throws DotenvException {
+        try {
+            final DotenvxFile dotenvxFile = DotenvxFile.read(file);
+            final String publicKeyPrefix = dotenvxFile.publicKeyPrefix();
+            String filePublicKeyHex = null;
+            for (int i = 0; i < dotenvxFile.size(); i++) {
+                final String key = dotenvxFile.key(i);
+                if (key != null && key.startsWith(publicKeyPrefix) && !dotenvxFile.value(i).isEmpty()) {
+                    filePublicKeyHex = dotenvxFile.value(i);
+                    break;
+                }
+            }
+            String privateKeyHex = null;
+            String targetPublicKeyHex = publicKeyHex != null && !publicKeyHex.isEmpty() ? publicKeyHex : filePublicKeyHex;
+            if (targetPublicKeyHex == null) {
+                final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+                targetPublicKeyHex = keyPair.getPublicHex(true);
+                privateKeyHex = keyPair.getPrivateHex();
+            }
+            final EciesPublicKey publicKey = new EciesPublicKey(targetPublicKeyHex);
+            if (filePublicKeyHex == null) {
+                dotenvxFile.insert(0, publicKeyName(dotenvxFile, file), publicKey.getPublicKeyHex());
+            } else if (!filePublicKeyHex.equalsIgnoreCase(publicKey.getPublicKeyHex())) {
+                throw new DotenvException("Public key doesn't match " + publicKeyPrefix + " in " + file);
+            }
+            // collect lines and plaintext values to encrypt
+            final List<Integer> lines = new ArrayList<>();
+            final List<String> plainTexts = new ArrayList<>();
+            for (int i = 0; i < dotenvxFile.size(); i++) {
+                final String key = dotenvxFile.key(i);
+                if (key == null || key.startsWith(publicKeyPrefix) || newValues.containsKey(key)) {
+                    continue;
+                }
+                if ((keys.isEmpty() || keys.contains(key)) && !DotenvxIndex.isEncrypted(dotenvxFile.value(i))) {
+                    lines.add(i);
+                    plainTexts.add(dotenvxFile.decodedValue(i));
+                }
+            }
+            for (Map.Entry<String, String> entry : newValues.entrySet()) {
+                int index = dotenvxFile.indexOf(entry.getKey());
+                if (index < 0) {
+                    index = dotenvxFile.append(entry.getKey(), "");
+                }
+                lines.add(index);
+                plainTexts.add(entry.getValue());
+            }
+            final List<EciesPublicKey> envelopeRecipients = new ArrayList<>();
+            if (!recipients.isEmpty()) {
+                envelopeRecipients.add(publicKey);
+                for (String recipient : recipients) {
+                    envelopeRecipients.add(new EciesPublicKey(recipient));
+                }
+            }
+            final String[] encrypted = new String[lines.size()];
+            IntStream.range(0, encrypted.length).parallel().forEach(i -> {
+                try {
+                    if (!envelopeRecipients.isEmpty()) {
+                        encrypted[i] = DotenvxIndex.ENVELOPE_PREFIX + EciesEnvelope.seal(plainTexts.get(i), envelopeRecipients);
+                    } else if (compressionThreshold >= 0) {
+                        encrypted[i] = EciesCompression.encrypt(publicKey, plainTexts.get(i), compressionThreshold);
+                    } else {
+                        encrypted[i] = DotenvxIndex.ENCRYPTED_PREFIX + publicKey.encrypt(plainTexts.get(i));
+                    }
+                } catch (Exception e) {
+                    throw new DotenvException("Failed to encrypt " + dotenvxFile.key(lines.get(i)) + " in " + file);
+                }
+            });
+            for (int i = 0; i < encrypted.length; i++) {
+                dotenvxFile.setValue(lines.get(i), encrypted[i]);
+            }
+            dotenvxFile.writeAtomically(file);
+            return new Result(file, encrypted.length, publicKey.getPublicKeyHex(), privateKeyHex);
+        } catch (DotenvException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DotenvException("Failed to write encrypted file: " + file);
+        }
+    }
+
+    private static String publicKeyName(DotenvxFile dotenvxFile, Path file) {
+        if (dotenvxFile.isProperties()) {
+            return "dotenv.public.key";
+        }
+        final String profileName = DotenvxIndex.forEnv(file.getFileName().toString()).profileName();
+        return profileName == null ? "DOTENV_PUBLIC_KEY" : "DOTENV_PUBLIC_KEY_" + profileName.toUpperCase();
+    }
+
+    /**
+     * write result
+     *
+     * @param file           written file
+     * @param encryptedCount count of encrypted values
+     * @param publicKeyHex   public key in hex
+     * @param privateKeyHex  private key in hex if the key pair was generated by the writer, otherwise null
+     */
+    public record Result(Path file, int encryptedCount, String publicKeyHex, @Nullable String privateKeyHex) {
+    }
+}
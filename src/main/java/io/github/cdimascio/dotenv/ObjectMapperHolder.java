@@ -0,0 +1,16 @@
+package io.github.cdimascio.dotenv;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lazy ObjectMapper for the global key store `~/.dotenvx/.env.keys.json`,
+ * so Jackson is loaded only when the global key store is read.
+ *
+ * @author linux_china
+ */
+final class ObjectMapperHolder {
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private ObjectMapperHolder() {
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.cdimascio.ecies;
 
+import io.github.cdimascio.crypto.BouncyCastleProviderHolder;
 import org.bouncycastle.crypto.InvalidCipherTextException;
 import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.engines.AESEngine;
@@ -14,17 +15,17 @@ import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPublicKey;
 import org.bouncycastle.jce.ECNamedCurveTable;
 import org.bouncycastle.jce.interfaces.ECPrivateKey;
 import org.bouncycastle.jce.interfaces.ECPublicKey;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.bouncycastle.jce.spec.ECNamedCurveSpec;
 import org.bouncycastle.util.encoders.Base64;
 import org.bouncycastle.util.encoders.Hex;
 import org.jspecify.annotations.NonNull;
 
-import java.math.BigInteger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
-import java.security.spec.ECPrivateKeySpec;
 import java.security.spec.ECPublicKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
@@ -32,14 +33,12 @@ import java.util.Arrays;
 @SuppressWarnings("unused")
 public class Ecies {
 
-    private static final String CURVE_NAME = "secp256k1";
-    private static final int UNCOMPRESSED_PUBLIC_KEY_SIZE = 65;
-    private static final int AES_IV_LENGTH = 16;
-    private static final int AES_TAG_LENGTH = 16;
+    static final String CURVE_NAME = "secp256k1";
+    static final int UNCOMPRESSED_PUBLIC_KEY_SIZE = 65;
+    static final int AES_IV_LENGTH = 16;
+    static final int AES_TAG_LENGTH = 16;
     private static final int AES_IV_PLUS_TAG_LENGTH = AES_IV_LENGTH + AES_TAG_LENGTH;
     private static final int SECRET_KEY_LENGTH = 32;
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final BouncyCastleProvider BOUNCY_CASTLE_PROVIDER = new BouncyCastleProvider();
 
     /**
      * Generates new key pair consists of {@link ECPublicKey} and {@link ECPrivateKey}
@@ -48,8 +47,8 @@ public class Ecies {
      */
     public static ECKeyPair generateEcKeyPair() throws NoSuchAlgorithmException, InvalidAlgorithmParameterException {
         ECNamedCurveParameterSpec ecSpec = ECNamedCurveTable.getParameterSpec(CURVE_NAME);
-        KeyPairGenerator g = KeyPairGenerator.getInstance("EC", BOUNCY_CASTLE_PROVIDER);
-        g.initialize(ecSpec, SECURE_RANDOM);
+        KeyPairGenerator g = KeyPairGenerator.getInstance("EC", BouncyCastleProviderHolder.provider());
+        g.initialize(ecSpec, secureRandom());
         KeyPair keyPair = g.generateKeyPair();
         return new ECKeyPair((BCECPublicKey) keyPair.getPublic(), (BCECPrivateKey) keyPair.getPrivate());
     }
@@ -105,7 +104,7 @@ public class Ecies {
         byte[] aesKey = hkdf(uncompressed, multiply);
 
         // AES encryption
-        return aesEncrypt(message, ephemeralPublicKey, aesKey);
+        return aesEncrypt(message, uncompressed, aesKey);
     }
 
     /**
@@ -116,35 +115,47 @@ public class Ecies {
      * @return decrypted message binary
      */
     public static byte[] decrypt(byte[] privateKeyBytes, byte[] cipherBytes) throws NoSuchAlgorithmException, InvalidKeySpecException, InvalidCipherTextException {
-        ECNamedCurveParameterSpec ecSpec = ECNamedCurveTable.getParameterSpec(CURVE_NAME);
-        KeyFactory keyFactory = getKeyFactory();
-        ECNamedCurveSpec curvedParams = new ECNamedCurveSpec(CURVE_NAME, ecSpec.getCurve(), ecSpec.getG(), ecSpec.getN());
-
-        //generate a receiver private key
-        ECPrivateKeySpec privateKeySpec = new ECPrivateKeySpec(new BigInteger(1, privateKeyBytes), curvedParams);
-        ECPrivateKey receiverPrivateKey = (ECPrivateKey) keyFactory.generatePrivate(privateKeySpec);
-
-        //get sender pub key
-        byte[] senderPubKeyByte = Arrays.copyOf(cipherBytes, UNCOMPRESSED_PUBLIC_KEY_SIZE);
-        ECPublicKey senderPubKey = getEcPublicKey(curvedParams, senderPubKeyByte, keyFactory);
+        final EciesPrivateKey privateKey;
+        try {
+            privateKey = new EciesPrivateKey(privateKeyBytes);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeySpecException(e.getMessage());
+        }
+        return privateKey.decrypt(cipherBytes);
+    }
 
-        //decapsulate
-        byte[] uncompressed = senderPubKey.getQ().getEncoded(false);
-        byte[] multiply = senderPubKey.getQ().multiply(receiverPrivateKey.getD()).getEncoded(false);
-        byte[] aesKey = hkdf(uncompressed, multiply);
+    /**
+     * Encrypts the message from the input stream to the output stream in chunks with bounded memory
+     *
+     * @param publicKeyHex EC public key in hex
+     * @param in           message to encrypt binary
+     * @param out          encrypted message binary
+     * @see EciesPublicKey#encrypt(InputStream, OutputStream)
+     */
+    public static void encrypt(@NonNull String publicKeyHex, @NonNull InputStream in, @NonNull OutputStream out) throws IOException, InvalidCipherTextException {
+        new EciesPublicKey(publicKeyHex).encrypt(in, out);
+    }
 
-        // AES decryption
-        return aesDecrypt(cipherBytes, aesKey);
+    /**
+     * Decrypts the ciphertext from the input stream to the output stream in chunks with bounded memory
+     *
+     * @param privateKeyHex EC private key in hex
+     * @param in            cipher text binary
+     * @param out           decrypted message binary
+     * @see EciesPrivateKey#decrypt(InputStream, OutputStream)
+     */
+    public static void decrypt(@NonNull String privateKeyHex, @NonNull InputStream in, @NonNull OutputStream out) throws IOException, InvalidCipherTextException {
+        new EciesPrivateKey(privateKeyHex).decrypt(in, out);
     }
 
     private static KeyFactory getKeyFactory() throws NoSuchAlgorithmException {
-        return KeyFactory.getInstance("EC", BOUNCY_CASTLE_PROVIDER);
+        return KeyFactory.getInstance("EC", BouncyCastleProviderHolder.provider());
     }
 
-    private static byte[] aesEncrypt(byte[] message, ECPublicKey ephemeralPubKey, byte[] aesKey) throws InvalidCipherTextException {
+    static byte[] aesEncrypt(byte[] message, byte[] ephemeralPkUncompressed, byte[] aesKey) throws InvalidCipherTextException {
         final GCMModeCipher aesGcmBlockCipher = GCMBlockCipher.newInstance(AESEngine.newInstance());
         byte[] nonce = new byte[AES_IV_LENGTH];
-        SECURE_RANDOM.nextBytes(nonce);
+        secureRandom().nextBytes(nonce);
 
         ParametersWithIV parametersWithIV = new ParametersWithIV(new KeyParameter(aesKey), nonce);
         aesGcmBlockCipher.init(true, parametersWithIV);
@@ -158,18 +169,24 @@ public class Ecies {
         byte[] tag = Arrays.copyOfRange(encrypted, encrypted.length - nonce.length, encrypted.length);
         encrypted = Arrays.copyOfRange(encrypted, 0, encrypted.length - tag.length);
 
-        byte[] ephemeralPkUncompressed = ephemeralPubKey.getQ().getEncoded(false);
         return org.bouncycastle.util.Arrays.concatenate(ephemeralPkUncompressed, nonce, tag, encrypted);
     }
 
     private static KeyPair generateEphemeralKey(ECNamedCurveParameterSpec ecSpec) throws NoSuchAlgorithmException, InvalidAlgorithmParameterException {
-        KeyPairGenerator g = KeyPairGenerator.getInstance("EC", BOUNCY_CASTLE_PROVIDER);
-        g.initialize(ecSpec, SECURE_RANDOM);
+        KeyPairGenerator g = KeyPairGenerator.getInstance("EC", BouncyCastleProviderHolder.provider());
+        g.initialize(ecSpec, secureRandom());
         return g.generateKeyPair();
     }
 
-    private static byte[] aesDecrypt(byte[] inputBytes, byte[] aesKey) throws InvalidCipherTextException {
-        byte[] encrypted = Arrays.copyOfRange(inputBytes, UNCOMPRESSED_PUBLIC_KEY_SIZE, inputBytes.length);
+    static byte[] aesDecrypt(byte[] inputBytes, byte[] aesKey) throws InvalidCipherTextException {
+        return aesDecrypt(inputBytes, UNCOMPRESSED_PUBLIC_KEY_SIZE, aesKey);
+    }
+
+    static byte[] aesDecrypt(byte[] inputBytes, int offset, byte[] aesKey) throws InvalidCipherTextException {
+        if (inputBytes.length < offset + AES_IV_PLUS_TAG_LENGTH) {
+            throw new InvalidCipherTextException("Cipher text too short");
+        }
+        byte[] encrypted = Arrays.copyOfRange(inputBytes, offset, inputBytes.length);
         byte[] nonce = Arrays.copyOf(encrypted, AES_IV_LENGTH);
         byte[] tag = Arrays.copyOfRange(encrypted, AES_IV_LENGTH, AES_IV_PLUS_TAG_LENGTH);
         byte[] ciphered = Arrays.copyOfRange(encrypted, AES_IV_PLUS_TAG_LENGTH, encrypted.length);
@@ -186,7 +203,14 @@ public class Ecies {
         return decrypted;
     }
 
-    private static byte[] hkdf(byte[] uncompressed, byte[] multiply) {
+    /**
+     * secure random created on first use, so loading plaintext files doesn't seed it
+     */
+    static SecureRandom secureRandom() {
+        return SecureRandomHolder.SECURE_RANDOM;
+    }
+
+    static byte[] hkdf(byte[] uncompressed, byte[] multiply) {
         byte[] master = org.bouncycastle.util.Arrays.concatenate(uncompressed, multiply);
         HKDFBytesGenerator hkdfBytesGenerator = new HKDFBytesGenerator(new SHA256Digest());
         hkdfBytesGenerator.init(new HKDFParameters(master, null, null));
@@ -200,4 +224,8 @@ public class Ecies {
         ECPublicKeySpec pubKeySpec = new ECPublicKeySpec(point, curvedParams);
         return (ECPublicKey) keyFactory.generatePublic(pubKeySpec);
     }
+
+    private static final class SecureRandomHolder {
+        private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    }
 }
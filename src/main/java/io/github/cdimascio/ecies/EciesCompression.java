@@ -0,0 +1,126 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Base64;
+import org.jspecify.annotations.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Opt-in compression of large plaintexts before encryption: the message is compressed with raw deflate,
+ * then encrypted with ECIES, and the value is prefixed with `encrypted:compressed:` instead of `encrypted:`.
+ * The `compressed:` format tag is nested under the `encrypted:` marker, so plaintext starting with `compressed:` is never decrypted,
+ * and `:` is not a base64 char, so the tag can't be confused with an ECIES ciphertext.
+ * Messages smaller than the threshold, or not smaller after compression, are encrypted as `encrypted:` values.
+ *
+ * @author linux_china
+ */
+public final class EciesCompression {
+    public static final String ENCRYPTED_PREFIX = "encrypted:";
+    /**
+     * format tag of compressed values after the `encrypted:` marker
+     */
+    public static final String COMPRESSED_FORMAT = "compressed:";
+    public static final String COMPRESSED_PREFIX = ENCRYPTED_PREFIX + COMPRESSED_FORMAT;
+    /**
+     * default threshold in bytes, and compression of smaller messages doesn't pay off
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+    /**
+     * max size of the inflated message, to reject decompression bombs
+     */
+    static final int MAX_INFLATED_SIZE = 64 * 1024 * 1024;
+
+    private EciesCompression() {
+    }
+
+    /**
+     * encrypt the message, and compress it first if its size is not less than the threshold
+     *
+     * @param publicKey public key context
+     * @param message   message to encrypt
+     * @param threshold min size in bytes of the UTF-8 message to compress
+     * @return value prefixed with `encrypted:compressed:` or `encrypted:`
+     */
+    public static String encrypt(@NonNull EciesPublicKey publicKey, @NonNull String message, int threshold) throws InvalidCipherTextException {
+        final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= threshold) {
+            final byte[] deflated = deflate(bytes);
+            if (deflated.length < bytes.length) {
+                return COMPRESSED_PREFIX + Base64.toBase64String(publicKey.encrypt(deflated));
+            }
+        }
+        return ENCRYPTED_PREFIX + Base64.toBase64String(publicKey.encrypt(bytes));
+    }
+
+    /**
+     * decrypt the value prefixed with `encrypted:compressed:` or `encrypted:`
+     *
+     * @param privateKey private key context
+     * @param value      value with prefix
+     * @return decrypted message
+     */
+    public static String decrypt(@NonNull EciesPrivateKey privateKey, @NonNull String value) throws InvalidCipherTextException {
+        if (value.startsWith(COMPRESSED_PREFIX)) {
+            return decryptCompressed(privateKey, value.substring(COMPRESSED_PREFIX.length()));
+        } else if (value.startsWith(ENCRYPTED_PREFIX)) {
+            return privateKey.decrypt(value.substring(ENCRYPTED_PREFIX.length()));
+        }
+        throw new InvalidCipherTextException("Value is not prefixed with " + COMPRESSED_PREFIX + " or " + ENCRYPTED_PREFIX);
+    }
+
+    /**
+     * decrypt and inflate the ciphertext of a compressed value
+     *
+     * @param privateKey private key context
+     * @param cipherText ciphertext in base64 without `encrypted:compressed:` prefix
+     * @return decrypted message
+     */
+    public static String decryptCompressed(@NonNull EciesPrivateKey privateKey, @NonNull String cipherText) throws InvalidCipherTextException {
+        return new String(inflate(privateKey.decrypt(Base64.decode(cipherText))), StandardCharsets.UTF_8);
+    }
+
+    static byte[] deflate(byte[] bytes) {
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+            final byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] deflated) throws InvalidCipherTextException {
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(deflated);
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(deflated.length * 4);
+            final byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                final int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new InvalidCipherTextException("Truncated compressed value");
+                }
+                if (output.size() + count > MAX_INFLATED_SIZE) {
+                    throw new InvalidCipherTextException("Compressed value exceeds " + MAX_INFLATED_SIZE + " bytes");
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new InvalidCipherTextException("Invalid compressed value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.bouncycastle.math.ec.ECCurve;
+
+/**
+ * secp256k1 curve parameters shared by the prepared key contexts
+ *
+ * @author linux_china
+ */
+final class EciesCurve {
+    static final ECNamedCurveParameterSpec SPEC = ECNamedCurveTable.getParameterSpec(Ecies.CURVE_NAME);
+    static final ECCurve CURVE = SPEC.getCurve();
+    static final ECDomainParameters DOMAIN = new ECDomainParameters(SPEC.getCurve(), SPEC.getG(), SPEC.getN(), SPEC.getH());
+
+    private EciesCurve() {
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+import org.jspecify.annotations.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multi-recipient envelope: the message is encrypted once with a random data key under AES-GCM,
+ * and only the data key is encrypted with ECIES for every recipient public key,
+ * so one value serves many environments, and a recipient can be added without encrypting the message again.
+ * <p>
+ * Binary layout: version(1) | recipient count(1) | [compressed public key(33) | ECIES wrapped data key(129)] * count | nonce(16) | tag(16) | ciphertext
+ *
+ * @author linux_china
+ */
+public final class EciesEnvelope {
+    static final byte VERSION = 1;
+    static final int MAX_RECIPIENTS = 255;
+    private static final int DATA_KEY_LENGTH = 32;
+    private static final int COMPRESSED_PUBLIC_KEY_SIZE = 33;
+    private static final int WRAPPED_KEY_SIZE = Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE + Ecies.AES_IV_LENGTH + Ecies.AES_TAG_LENGTH + DATA_KEY_LENGTH;
+    private static final int RECIPIENT_SIZE = COMPRESSED_PUBLIC_KEY_SIZE + WRAPPED_KEY_SIZE;
+    private static final int HEADER_SIZE = 2;
+
+    private EciesEnvelope() {
+    }
+
+    /**
+     * seal the message for the recipients
+     *
+     * @param message    message
+     * @param recipients public keys of the recipients
+     * @return envelope in base64
+     */
+    public static String seal(@NonNull String message, @NonNull List<EciesPublicKey> recipients) throws InvalidCipherTextException {
+        return Base64.toBase64String(seal(message.getBytes(StandardCharsets.UTF_8), recipients));
+    }
+
+    /**
+     * seal the message for the recipients
+     *
+     * @param message    message binary
+     * @param recipients public keys of the recipients
+     * @return envelope binary
+     */
+    public static byte[] seal(byte[] message, @NonNull List<EciesPublicKey> recipients) throws InvalidCipherTextException {
+        if (recipients.isEmpty() || recipients.size() > MAX_RECIPIENTS) {
+            throw new IllegalArgumentException("Envelope requires 1 to " + MAX_RECIPIENTS + " recipients");
+        }
+        final byte[] dataKey = new byte[DATA_KEY_LENGTH];
+        Ecies.secureRandom().nextBytes(dataKey);
+        final List<byte[]> entries = new ArrayList<>(recipients.size());
+        for (EciesPublicKey recipient : recipients) {
+            final byte[] publicKey = Hex.decode(recipient.getPublicKeyHex());
+            if (indexOf(entries, publicKey) < 0) {
+                entries.add(recipientEntry(publicKey, recipient.encrypt(dataKey)));
+            }
+        }
+        return Ecies.aesEncrypt(message, header(entries), dataKey);
+    }
+
+    /**
+     * open the envelope with the private key of one recipient, and only the data key of the recipient is decrypted
+     *
+     * @param envelope   envelope in base64
+     * @param privateKey private key of the recipient
+     * @return message
+     */
+    public static String open(@NonNull String envelope, @NonNull EciesPrivateKey privateKey) throws InvalidCipherTextException {
+        return new String(open(Base64.decode(envelope), privateKey), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * open the envelope with the private key of one recipient, and only the data key of the recipient is decrypted
+     *
+     * @param envelope   envelope binary
+     * @param privateKey private key of the recipient
+     * @return message binary
+     */
+    public static byte[] open(byte[] envelope, @NonNull EciesPrivateKey privateKey) throws InvalidCipherTextException {
+        final List<byte[]> entries = parseRecipients(envelope);
+        return Ecies.aesDecrypt(envelope, HEADER_SIZE + entries.size() * RECIPIENT_SIZE, unwrapDataKey(entries, privateKey));
+    }
+
+    /**
+     * get the public keys of the recipients
+     *
+     * @param envelope envelope in base64
+     * @return compressed public keys in hex
+     */
+    public static List<String> recipients(@NonNull String envelope) throws InvalidCipherTextException {
+        final List<String> publicKeys = new ArrayList<>();
+        for (byte[] entry : parseRecipients(Base64.decode(envelope))) {
+            publicKeys.add(Hex.toHexString(entry, 0, COMPRESSED_PUBLIC_KEY_SIZE));
+        }
+        return publicKeys;
+    }
+
+    /**
+     * add a recipient to the envelope: the data key is decrypted with the private key of an existing recipient,
+     * and wrapped for the new recipient, and the encrypted message is kept as it is
+     *
+     * @param envelope   envelope in base64
+     * @param privateKey private key of an existing recipient
+     * @param recipient  public key of the new recipient
+     * @return new envelope in base64
+     */
+    public static String addRecipient(@NonNull String envelope, @NonNull EciesPrivateKey privateKey,
+                                      @NonNull EciesPublicKey recipient) throws InvalidCipherTextException {
+        final byte[] envelopeBytes = Base64.decode(envelope);
+        final List<byte[]> entries = parseRecipients(envelopeBytes);
+        final int payloadOffset = HEADER_SIZE + entries.size() * RECIPIENT_SIZE;
+        final byte[] publicKey = Hex.decode(recipient.getPublicKeyHex());
+        if (indexOf(entries, publicKey) < 0) {
+            if (entries.size() == MAX_RECIPIENTS) {
+                throw new IllegalArgumentException("Envelope requires 1 to " + MAX_RECIPIENTS + " recipients");
+            }
+            entries.add(recipientEntry(publicKey, recipient.encrypt(unwrapDataKey(entries, privateKey))));
+        }
+        return Base64.toBase64String(withRecipients(entries, envelopeBytes, payloadOffset));
+    }
+
+    /**
+     * remove a recipient from the envelope, and the last recipient can't be removed.
+     * The data key is not changed, so a removed recipient who kept it can still decrypt the message,
+     * and please seal the message again with a fresh data key to revoke a recipient.
+     *
+     * @param envelope     envelope in base64
+     * @param publicKeyHex public key of the recipient
+     * @return new envelope in base64
+     */
+    public static String removeRecipient(@NonNull String envelope, @NonNull String publicKeyHex) throws InvalidCipherTextException {
+        final byte[] envelopeBytes = Base64.decode(envelope);
+        final List<byte[]> entries = parseRecipients(envelopeBytes);
+        final int payloadOffset = HEADER_SIZE + entries.size() * RECIPIENT_SIZE;
+        final int index = indexOf(entries, Hex.decode(new EciesPublicKey(publicKeyHex).getPublicKeyHex()));
+        if (index >= 0) {
+            if (entries.size() == 1) {
+                throw new IllegalArgumentException("Can't remove the last recipient of the envelope");
+            }
+            entries.remove(index);
+        }
+        return Base64.toBase64String(withRecipients(entries, envelopeBytes, payloadOffset));
+    }
+
+    private static byte[] unwrapDataKey(List<byte[]> entries, EciesPrivateKey privateKey) throws InvalidCipherTextException {
+        final int index = indexOf(entries, Hex.decode(privateKey.getPublicKeyHex()));
+        if (index < 0) {
+            throw new InvalidCipherTextException("No recipient for public key: " + privateKey.getPublicKeyHex());
+        }
+        final byte[] entry = entries.get(index);
+        return privateKey.decrypt(Arrays.copyOfRange(entry, COMPRESSED_PUBLIC_KEY_SIZE, RECIPIENT_SIZE));
+    }
+
+    private static List<byte[]> parseRecipients(byte[] envelope) throws InvalidCipherTextException {
+        if (envelope.length < HEADER_SIZE || envelope[0] != VERSION) {
+            throw new InvalidCipherTextException("Invalid envelope");
+        }
+        final int count = envelope[1] & 0xFF;
+        if (count == 0 || envelope.length < HEADER_SIZE + count * RECIPIENT_SIZE + Ecies.AES_IV_LENGTH + Ecies.AES_TAG_LENGTH) {
+            throw new InvalidCipherTextException("Invalid envelope");
+        }
+        final List<byte[]> entries = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) {
+            final int offset = HEADER_SIZE + i * RECIPIENT_SIZE;
+            entries.add(Arrays.copyOfRange(envelope, offset, offset + RECIPIENT_SIZE));
+        }
+        return entries;
+    }
+
+    private static byte[] withRecipients(List<byte[]> entries, byte[] envelope, int payloadOffset) {
+        final byte[] header = header(entries);
+        final byte[] result = Arrays.copyOf(header, header.length + envelope.length - payloadOffset);
+        System.arraycopy(envelope, payloadOffset, result, header.length, envelope.length - payloadOffset);
+        return result;
+    }
+
+    private static byte[] header(List<byte[]> entries) {
+        final ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_SIZE + entries.size() * RECIPIENT_SIZE);
+        header.write(VERSION);
+        header.write(entries.size());
+        for (byte[] entry : entries) {
+            header.writeBytes(entry);
+        }
+        return header.toByteArray();
+    }
+
+    private static byte[] recipientEntry(byte[] publicKey, byte[] wrappedKey) {
+        final byte[] entry = Arrays.copyOf(publicKey, RECIPIENT_SIZE);
+        System.arraycopy(wrappedKey, 0, entry, COMPRESSED_PUBLIC_KEY_SIZE, WRAPPED_KEY_SIZE);
+        return entry;
+    }
+
+    private static int indexOf(List<byte[]> entries, byte[] publicKey) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (Arrays.equals(entries.get(i), 0, COMPRESSED_PUBLIC_KEY_SIZE, publicKey, 0, COMPRESSED_PUBLIC_KEY_SIZE)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of pre-generated ephemeral key pairs for ECIES encryption, refilled by a background daemon thread,
+ * so EC key generation is moved off the request path. Every key pair is removed from the pool when it's taken,
+ * and used for one encryption only. If the pool is exhausted, the key pair is generated inline and counted as a miss.
+ *
+ * <pre>{@code
+ * EciesEphemeralKeyPool pool = new EciesEphemeralKeyPool(1024);
+ * EciesPublicKey publicKey = new EciesPublicKey(publicKeyHex).ephemeralKeyPool(pool);
+ * }</pre>
+ *
+ * @author linux_china
+ */
+public final class EciesEphemeralKeyPool implements Closeable {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private final BlockingQueue<EphemeralKey> keys;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Thread refillThread;
+    private volatile boolean closed;
+
+    /**
+     * create pool and start the refill thread
+     *
+     * @param capacity max count of pre-generated key pairs
+     */
+    public EciesEphemeralKeyPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new ArrayBlockingQueue<>(capacity);
+        this.refillThread = new Thread(this::refill, "dotenvx-ephemeral-keys-" + THREAD_COUNTER.incrementAndGet());
+        this.refillThread.setDaemon(true);
+        this.refillThread.start();
+    }
+
+    /**
+     * capacity of the pool
+     *
+     * @return max count of pre-generated key pairs
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * count of pre-generated key pairs available now
+     *
+     * @return available key pairs
+     */
+    public int available() {
+        return keys.size();
+    }
+
+    /**
+     * count of key pairs taken from the pool
+     *
+     * @return hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * count of key pairs generated inline because the pool was exhausted
+     *
+     * @return misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * stop the refill thread and drop the pre-generated key pairs, and later encryptions generate key pairs inline
+     */
+    @Override
+    public void close() {
+        closed = true;
+        refillThread.interrupt();
+        keys.clear();
+    }
+
+    EphemeralKey take() {
+        final EphemeralKey key = keys.poll();
+        if (key != null) {
+            hits.increment();
+            return key;
+        }
+        misses.increment();
+        return EphemeralKey.generate();
+    }
+
+    private void refill() {
+        try {
+            while (!closed) {
+                keys.put(EphemeralKey.generate());
+            }
+        } catch (InterruptedException ignore) {
+            // closed
+        } finally {
+            keys.clear();
+        }
+    }
+
+    /**
+     * single-use ephemeral key pair
+     *
+     * @param publicKeyUncompressed uncompressed ephemeral public key
+     * @param d                     ephemeral private key
+     */
+    record EphemeralKey(byte[] publicKeyUncompressed, BigInteger d) {
+
+        static EphemeralKey generate() {
+            ECKeyPairGenerator generator = new ECKeyPairGenerator();
+            generator.init(new ECKeyGenerationParameters(EciesCurve.DOMAIN, Ecies.secureRandom()));
+            AsymmetricCipherKeyPair keyPair = generator.generateKeyPair();
+            return new EphemeralKey(((ECPublicKeyParameters) keyPair.getPublic()).getQ().getEncoded(false),
+                    ((ECPrivateKeyParameters) keyPair.getPrivate()).getD());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.ECPointMap;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.math.ec.endo.GLVEndomorphism;
+
+import java.math.BigInteger;
+
+/**
+ * Private scalar prepared for variable-base multiplications on the custom secp256k1 curve with the GLV endomorphism:
+ * the scalar is split into two half-length scalars `d = k1 + k2 * lambda (mod n)` and both are recoded to signed
+ * window NAF once, so every ECDH only builds the odd multiples table of the ephemeral point,
+ * maps it with the endomorphism `(x, y) -> (beta * x, y)`, and runs one joint double-and-add loop of about 128 doublings.
+ * Instances are immutable and thread-safe.
+ *
+ * @author linux_china
+ */
+final class EciesGlvScalar {
+    /**
+     * window width for 128-bit scalars, and the table has 2^(WIDTH-2) odd multiples
+     */
+    static final int WIDTH = 5;
+    private static final GLVEndomorphism ENDOMORPHISM = (GLVEndomorphism) EciesCurve.CURVE.getEndomorphism();
+    private final byte[] wnaf1;
+    private final byte[] wnaf2;
+
+    EciesGlvScalar(BigInteger d) {
+        final BigInteger[] ks = ENDOMORPHISM.decomposeScalar(d.mod(EciesCurve.DOMAIN.getN()));
+        this.wnaf1 = signedWindowNaf(ks[0]);
+        this.wnaf2 = signedWindowNaf(ks[1]);
+    }
+
+    /**
+     * multiply the point on the curve with the prepared scalar
+     *
+     * @param point point decoded from {@link EciesCurve#CURVE}
+     * @return normalized result point
+     */
+    ECPoint multiply(ECPoint point) {
+        final ECPoint[] table1 = oddMultiples(point);
+        final ECPointMap pointMap = ENDOMORPHISM.getPointMap();
+        final ECPoint[] table2 = new ECPoint[table1.length];
+        for (int i = 0; i < table1.length; i++) {
+            table2[i] = pointMap.map(table1[i]);
+        }
+        ECPoint result = EciesCurve.CURVE.getInfinity();
+        int doublings = 0;
+        for (int i = Math.max(wnaf1.length, wnaf2.length) - 1; i >= 0; i--) {
+            doublings++;
+            final int digit1 = i < wnaf1.length ? wnaf1[i] : 0;
+            final int digit2 = i < wnaf2.length ? wnaf2[i] : 0;
+            if ((digit1 | digit2) == 0) {
+                continue;
+            }
+            result = result.timesPow2(doublings);
+            doublings = 0;
+            // table points are affine, so every addition is a mixed addition
+            if (digit1 != 0) {
+                result = result.add(select(table1, digit1));
+            }
+            if (digit2 != 0) {
+                result = result.add(select(table2, digit2));
+            }
+        }
+        if (doublings > 0) {
+            result = result.timesPow2(doublings);
+        }
+        return ECAlgorithms.validatePoint(result.normalize());
+    }
+
+    /**
+     * P, 3P, 5P ... (2^(WIDTH-1) - 1)P in affine coordinates, so the additions of the main loop are mixed additions
+     */
+    private static ECPoint[] oddMultiples(ECPoint point) {
+        final ECPoint[] table = new ECPoint[1 << (WIDTH - 2)];
+        table[0] = point.normalize();
+        final ECPoint twice = table[0].twice();
+        for (int i = 1; i < table.length; i++) {
+            table[i] = table[i - 1].add(twice);
+        }
+        EciesCurve.CURVE.normalizeAll(table);
+        return table;
+    }
+
+    private static ECPoint select(ECPoint[] table, int digit) {
+        final ECPoint point = table[Math.abs(digit) >>> 1];
+        return digit < 0 ? point.negate() : point;
+    }
+
+    /**
+     * window NAF of |k| in little-endian order, and the sign of k is folded into the digits
+     */
+    private static byte[] signedWindowNaf(BigInteger k) {
+        final byte[] wnaf = WNafUtil.generateWindowNaf(WIDTH, k.abs());
+        if (k.signum() < 0) {
+            for (int i = 0; i < wnaf.length; i++) {
+                wnaf[i] = (byte) -wnaf[i];
+            }
+        }
+        return wnaf;
+    }
+}
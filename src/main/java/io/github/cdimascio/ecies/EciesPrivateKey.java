@@ -0,0 +1,141 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+import org.jspecify.annotations.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Prepared private key context for ECIES decryption: the private key is parsed and split for the GLV multiplication once,
+ * and every decryption only does ECDH with the ephemeral public key, HKDF and AES-GCM.
+ * Instances are immutable and thread-safe.
+ *
+ * @author linux_china
+ */
+public final class EciesPrivateKey {
+    private final BigInteger d;
+    private final EciesGlvScalar scalar;
+    private volatile String publicKeyHex;
+
+    /**
+     * create private key context
+     *
+     * @param privateKeyHex EC private key in hex
+     */
+    public EciesPrivateKey(@NonNull String privateKeyHex) {
+        this(Hex.decode(privateKeyHex));
+    }
+
+    /**
+     * create private key context
+     *
+     * @param privateKeyBytes EC private key binary
+     */
+    public EciesPrivateKey(byte[] privateKeyBytes) {
+        this.d = new BigInteger(1, privateKeyBytes);
+        if (d.signum() <= 0 || d.compareTo(EciesCurve.DOMAIN.getN()) >= 0) {
+            throw new IllegalArgumentException("Invalid secp256k1 private key");
+        }
+        this.scalar = new EciesGlvScalar(d);
+    }
+
+    /**
+     * get the compressed public key of this private key
+     *
+     * @return compressed public key in hex
+     */
+    public String getPublicKeyHex() {
+        String hex = publicKeyHex;
+        if (hex == null) {
+            hex = Hex.toHexString(EciesCurve.DOMAIN.getG().multiply(d).getEncoded(true));
+            publicKeyHex = hex;
+        }
+        return hex;
+    }
+
+    /**
+     * Decrypts given ciphertext
+     *
+     * @param ciphertext ciphered text in base64
+     * @return decrypted message
+     */
+    public String decrypt(@NonNull String ciphertext) throws InvalidCipherTextException {
+        return new String(decrypt(Base64.decode(ciphertext)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decrypts given ciphertext
+     *
+     * @param cipherBytes cipher text binary
+     * @return decrypted message binary
+     */
+    public byte[] decrypt(byte[] cipherBytes) throws InvalidCipherTextException {
+        if (cipherBytes.length < Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE) {
+            throw new InvalidCipherTextException("Cipher text too short");
+        }
+        byte[] senderPubKeyByte = Arrays.copyOf(cipherBytes, Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE);
+        return Ecies.aesDecrypt(cipherBytes, deriveAesKey(senderPubKeyByte));
+    }
+
+    /**
+     * Decrypts the ciphertext from the input stream to the output stream in chunks with bounded memory.
+     * Plaintext is written before the tag is verified, so the output must be discarded if an exception is thrown.
+     * Streams are not closed.
+     *
+     * @param in  cipher text binary
+     * @param out decrypted message binary
+     */
+    public void decrypt(@NonNull InputStream in, @NonNull OutputStream out) throws IOException, InvalidCipherTextException {
+        EciesStreams.decrypt(this, in, out);
+    }
+
+    /**
+     * Decrypts the ciphertext from the readable channel to the writable channel in chunks with bounded memory.
+     * Plaintext is written before the tag is verified, so the output must be discarded if an exception is thrown.
+     * Channels are not closed.
+     *
+     * @param in  cipher text binary
+     * @param out decrypted message binary
+     */
+    public void decrypt(@NonNull ReadableByteChannel in, @NonNull WritableByteChannel out) throws IOException, InvalidCipherTextException {
+        EciesStreams.decrypt(this, Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    /**
+     * Decrypts the base64 ciphertext from the input stream to the output stream in chunks with bounded memory.
+     * Plaintext is written before the tag is verified, so the output must be discarded if an exception is thrown.
+     * Streams are not closed.
+     *
+     * @param in  ciphered text in base64
+     * @param out decrypted message binary
+     */
+    public void decryptBase64(@NonNull InputStream in, @NonNull OutputStream out) throws IOException, InvalidCipherTextException {
+        try {
+            EciesStreams.decrypt(this, java.util.Base64.getDecoder().wrap(in), out);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCipherTextException("Invalid base64 cipher text", e);
+        }
+    }
+
+    byte[] deriveAesKey(byte[] senderPubKeyByte) throws InvalidCipherTextException {
+        final ECPoint senderPoint;
+        try {
+            senderPoint = EciesCurve.CURVE.decodePoint(senderPubKeyByte);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCipherTextException("Invalid ephemeral public key", e);
+        }
+        byte[] multiply = scalar.multiply(senderPoint).getEncoded(false);
+        return Ecies.hkdf(senderPubKeyByte, multiply);
+    }
+}
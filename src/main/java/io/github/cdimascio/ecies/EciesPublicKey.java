@@ -0,0 +1,145 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Prepared public key context for ECIES encryption: the receiver's public key is decoded once,
+ * and every encryption only generates the ephemeral key pair, does ECDH, HKDF and AES-GCM.
+ * Instances are immutable and thread-safe.
+ *
+ * @author linux_china
+ */
+public final class EciesPublicKey {
+    private final ECPoint point;
+    private final String publicKeyHex;
+    @Nullable
+    private final EciesEphemeralKeyPool ephemeralKeyPool;
+
+    /**
+     * create public key context
+     *
+     * @param publicKeyHex EC public key in hex, compressed or uncompressed
+     */
+    public EciesPublicKey(@NonNull String publicKeyHex) {
+        this(Hex.decode(publicKeyHex));
+    }
+
+    /**
+     * create public key context
+     *
+     * @param publicKeyBytes EC public key binary, compressed or uncompressed
+     */
+    public EciesPublicKey(byte[] publicKeyBytes) {
+        this.point = EciesCurve.CURVE.decodePoint(publicKeyBytes).normalize();
+        this.publicKeyHex = Hex.toHexString(point.getEncoded(true));
+        this.ephemeralKeyPool = null;
+    }
+
+    private EciesPublicKey(ECPoint point, String publicKeyHex, @Nullable EciesEphemeralKeyPool ephemeralKeyPool) {
+        this.point = point;
+        this.publicKeyHex = publicKeyHex;
+        this.ephemeralKeyPool = ephemeralKeyPool;
+    }
+
+    /**
+     * create public key context which takes ephemeral key pairs from the pool
+     *
+     * @param ephemeralKeyPool pool of pre-generated ephemeral key pairs, null to generate key pairs inline
+     * @return new public key context
+     */
+    public EciesPublicKey ephemeralKeyPool(@Nullable EciesEphemeralKeyPool ephemeralKeyPool) {
+        return new EciesPublicKey(point, publicKeyHex, ephemeralKeyPool);
+    }
+
+    /**
+     * get the compressed public key
+     *
+     * @return compressed public key in hex
+     */
+    public String getPublicKeyHex() {
+        return publicKeyHex;
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt
+     * @return encrypted message with base64 encoding
+     */
+    public String encrypt(@NonNull String message) throws InvalidCipherTextException {
+        return Base64.toBase64String(encrypt(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt binary
+     * @return encrypted message binary
+     */
+    public byte[] encrypt(byte[] message) throws InvalidCipherTextException {
+        final Encapsulation encapsulation = encapsulate();
+        return Ecies.aesEncrypt(message, encapsulation.ephemeralPkUncompressed(), encapsulation.aesKey());
+    }
+
+    /**
+     * Encrypts the message from the input stream to the output stream in chunks with bounded memory.
+     * The tag precedes the ciphertext in the layout, so the ciphertext is spooled to a temp file before it's written.
+     * Streams are not closed.
+     *
+     * @param in  message to encrypt binary
+     * @param out encrypted message binary
+     */
+    public void encrypt(@NonNull InputStream in, @NonNull OutputStream out) throws IOException, InvalidCipherTextException {
+        final Encapsulation encapsulation = encapsulate();
+        EciesStreams.encrypt(encapsulation.ephemeralPkUncompressed(), encapsulation.aesKey(), in, out);
+    }
+
+    /**
+     * Encrypts the message from the readable channel to the writable channel in chunks with bounded memory.
+     * The tag is written in place if the output is a {@link java.nio.channels.SeekableByteChannel},
+     * otherwise the ciphertext is spooled to a temp file. Channels are not closed.
+     *
+     * @param in  message to encrypt binary
+     * @param out encrypted message binary
+     */
+    public void encrypt(@NonNull ReadableByteChannel in, @NonNull WritableByteChannel out) throws IOException, InvalidCipherTextException {
+        final Encapsulation encapsulation = encapsulate();
+        EciesStreams.encrypt(encapsulation.ephemeralPkUncompressed(), encapsulation.aesKey(), in, out);
+    }
+
+    /**
+     * Encrypts the message from the input stream to the output stream with base64 encoding, in chunks with bounded memory.
+     * Streams are not closed.
+     *
+     * @param in  message to encrypt binary
+     * @param out encrypted message with base64 encoding
+     */
+    public void encryptBase64(@NonNull InputStream in, @NonNull OutputStream out) throws IOException, InvalidCipherTextException {
+        try (OutputStream base64Out = java.util.Base64.getEncoder().wrap(EciesStreams.nonClosing(out))) {
+            encrypt(in, base64Out);
+        }
+    }
+
+    private Encapsulation encapsulate() {
+        final EciesEphemeralKeyPool.EphemeralKey ephemeralKey = ephemeralKeyPool != null
+                ? ephemeralKeyPool.take() : EciesEphemeralKeyPool.EphemeralKey.generate();
+        byte[] uncompressed = ephemeralKey.publicKeyUncompressed();
+        byte[] multiply = point.multiply(ephemeralKey.d()).getEncoded(false);
+        return new Encapsulation(uncompressed, Ecies.hkdf(uncompressed, multiply));
+    }
+
+    private record Encapsulation(byte[] ephemeralPkUncompressed, byte[] aesKey) {
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Chunked AES-GCM over streams and channels with the ECIES layout: ephemeral public key | nonce | tag | ciphertext.
+ * Memory is bounded by the chunk size. The tag is written before the ciphertext, so encryption to a seekable channel
+ * goes back to fill the tag in place, and encryption to other outputs spools the ciphertext to a temp file.
+ *
+ * @author linux_china
+ */
+final class EciesStreams {
+    private static final int CHUNK_SIZE = 8192;
+    // GCM keeps up to one block and the tag buffered between chunks
+    private static final int OUTPUT_SIZE = CHUNK_SIZE + 16 + Ecies.AES_TAG_LENGTH;
+
+    private EciesStreams() {
+    }
+
+    static void encrypt(byte[] ephemeralPkUncompressed, byte[] aesKey, InputStream in, OutputStream out) throws IOException, InvalidCipherTextException {
+        final byte[] nonce = newNonce();
+        final GCMModeCipher cipher = newCipher(true, aesKey, nonce);
+        final Path spoolFile = Files.createTempFile("dotenvx-", ".enc");
+        try {
+            final byte[] tag;
+            try (OutputStream spool = Files.newOutputStream(spoolFile)) {
+                tag = encryptChunks(cipher, in, spool);
+            }
+            out.write(ephemeralPkUncompressed);
+            out.write(nonce);
+            out.write(tag);
+            Files.copy(spoolFile, out);
+            out.flush();
+        } finally {
+            Files.deleteIfExists(spoolFile);
+        }
+    }
+
+    static void encrypt(byte[] ephemeralPkUncompressed, byte[] aesKey, ReadableByteChannel in, WritableByteChannel out) throws IOException, InvalidCipherTextException {
+        if (!(out instanceof SeekableByteChannel seekable)) {
+            encrypt(ephemeralPkUncompressed, aesKey, Channels.newInputStream(in), nonClosing(Channels.newOutputStream(out)));
+            return;
+        }
+        final byte[] nonce = newNonce();
+        final GCMModeCipher cipher = newCipher(true, aesKey, nonce);
+        final long tagPosition = seekable.position() + ephemeralPkUncompressed.length + nonce.length;
+        writeFully(seekable, ByteBuffer.wrap(ephemeralPkUncompressed));
+        writeFully(seekable, ByteBuffer.wrap(nonce));
+        writeFully(seekable, ByteBuffer.allocate(Ecies.AES_TAG_LENGTH));
+        final byte[] tag = encryptChunks(cipher, Channels.newInputStream(in), nonClosing(Channels.newOutputStream(seekable)));
+        final long endPosition = seekable.position();
+        seekable.position(tagPosition);
+        writeFully(seekable, ByteBuffer.wrap(tag));
+        seekable.position(endPosition);
+    }
+
+    static void decrypt(EciesPrivateKey privateKey, InputStream in, OutputStream out) throws IOException, InvalidCipherTextException {
+        final byte[] ephemeralPkUncompressed = readHeader(in, Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE);
+        final byte[] nonce = readHeader(in, Ecies.AES_IV_LENGTH);
+        final byte[] tag = readHeader(in, Ecies.AES_TAG_LENGTH);
+        final GCMModeCipher cipher = newCipher(false, privateKey.deriveAesKey(ephemeralPkUncompressed), nonce);
+        final byte[] buffer = new byte[CHUNK_SIZE];
+        final byte[] output = new byte[OUTPUT_SIZE];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(output, 0, cipher.processBytes(buffer, 0, count, output, 0));
+        }
+        final byte[] last = new byte[cipher.getOutputSize(tag.length)];
+        int pos = cipher.processBytes(tag, 0, tag.length, last, 0);
+        pos += cipher.doFinal(last, pos);
+        out.write(last, 0, pos);
+        out.flush();
+    }
+
+    /**
+     * wrap the output stream to keep it open when the wrapper is closed, for example base64 encoder output
+     */
+    static OutputStream nonClosing(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    private static byte[] encryptChunks(GCMModeCipher cipher, InputStream in, OutputStream out) throws IOException, InvalidCipherTextException {
+        final byte[] buffer = new byte[CHUNK_SIZE];
+        final byte[] output = new byte[OUTPUT_SIZE];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(output, 0, cipher.processBytes(buffer, 0, count, output, 0));
+        }
+        final byte[] last = new byte[cipher.getOutputSize(0)];
+        final int length = cipher.doFinal(last, 0);
+        // the tag is the end of the final block
+        out.write(last, 0, length - Ecies.AES_TAG_LENGTH);
+        out.flush();
+        return Arrays.copyOfRange(last, length - Ecies.AES_TAG_LENGTH, length);
+    }
+
+    private static byte[] newNonce() {
+        final byte[] nonce = new byte[Ecies.AES_IV_LENGTH];
+        Ecies.secureRandom().nextBytes(nonce);
+        return nonce;
+    }
+
+    private static GCMModeCipher newCipher(boolean forEncryption, byte[] aesKey, byte[] nonce) {
+        final GCMModeCipher cipher = GCMBlockCipher.newInstance(AESEngine.newInstance());
+        cipher.init(forEncryption, new ParametersWithIV(new KeyParameter(aesKey), nonce));
+        return cipher;
+    }
+
+    private static byte[] readHeader(InputStream in, int length) throws IOException, InvalidCipherTextException {
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new InvalidCipherTextException("Cipher text too short");
+        }
+        return bytes;
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
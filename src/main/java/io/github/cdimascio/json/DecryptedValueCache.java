@@ -0,0 +1,91 @@
+package io.github.cdimascio.json;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * bounded cache for ciphertext to plaintext with approximate LRU eviction:
+ * reads don't lock and only refresh the access time of the entry,
+ * and when the cache is full, the least recently used entry of a small sample is evicted.
+ *
+ * @author linux_china
+ */
+final class DecryptedValueCache {
+    private static final int SAMPLE_SIZE = 8;
+    private static final int MAX_SKIP = 64;
+    /**
+     * access time is refreshed at most once per this period, so hot entries are not written by every read
+     */
+    private static final long TOUCH_INTERVAL_NANOS = 1_000_000L;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> cache;
+
+    DecryptedValueCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    String get(String ciphertext) {
+        final Entry entry = cache.get(ciphertext);
+        if (entry == null) {
+            return null;
+        }
+        final long now = System.nanoTime();
+        if (now - entry.accessTime > TOUCH_INTERVAL_NANOS) {
+            entry.accessTime = now;
+        }
+        return entry.plaintext;
+    }
+
+    void put(String ciphertext, String plaintext) {
+        if (cache.put(ciphertext, new Entry(plaintext, System.nanoTime())) == null) {
+            while (cache.size() > maxSize) {
+                evict();
+            }
+        }
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * evict the least recently used entry of a sample, and the sample starts at a random offset to spread evictions over the table
+     */
+    private void evict() {
+        final Iterator<Map.Entry<String, Entry>> iterator = cache.entrySet().iterator();
+        final int size = cache.size();
+        int skip = size > SAMPLE_SIZE ? ThreadLocalRandom.current().nextInt(Math.min(size - SAMPLE_SIZE, MAX_SKIP) + 1) : 0;
+        while (skip-- > 0 && iterator.hasNext()) {
+            iterator.next();
+        }
+        Map.Entry<String, Entry> eldest = null;
+        for (int i = 0; i < SAMPLE_SIZE && iterator.hasNext(); i++) {
+            final Map.Entry<String, Entry> candidate = iterator.next();
+            if (eldest == null || candidate.getValue().accessTime - eldest.getValue().accessTime < 0) {
+                eldest = candidate;
+            }
+        }
+        if (eldest == null) {
+            // entries were removed concurrently after the random offset
+            final Iterator<String> keys = cache.keySet().iterator();
+            if (keys.hasNext()) {
+                cache.remove(keys.next());
+            }
+            return;
+        }
+        cache.remove(eldest.getKey(), eldest.getValue());
+    }
+
+    private static final class Entry {
+        private final String plaintext;
+        private volatile long accessTime;
+
+        private Entry(String plaintext, long accessTime) {
+            this.plaintext = plaintext;
+            this.accessTime = accessTime;
+        }
+    }
+}
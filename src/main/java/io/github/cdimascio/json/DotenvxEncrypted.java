@@ -0,0 +1,17 @@
+package io.github.cdimascio.json;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a String property as sensitive for {@link DotenvxJacksonModule}: the value is encrypted when serializing,
+ * and decrypted when deserializing if it's prefixed with `encrypted:`.
+ *
+ * @author linux_china
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DotenvxEncrypted {
+}
@@ -2,41 +2,134 @@ package io.github.cdimascio.json;
 
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import io.github.cdimascio.ecies.Ecies;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import io.github.cdimascio.dotenv.DotenvxKeyring;
+import io.github.cdimascio.ecies.EciesCompression;
+import io.github.cdimascio.ecies.EciesPrivateKey;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 
 /**
- * dotenvx json deserializer for String prefixed with `encrypted:`
+ * dotenvx json deserializer for String prefixed with `encrypted:`, including compressed `encrypted:compressed:` values
  *
  * @author linux_china
  */
 
-public class DotenvxGlobalJsonDeserializer extends StdDeserializer<String> {
-    private final String privateKey;
+public class DotenvxGlobalJsonDeserializer extends StdDeserializer<String> implements ContextualDeserializer {
+    private static final long serialVersionUID = 1L;
+    /**
+     * attribute name of the public key to pick the private key from the keyring, set by `ObjectReader.withAttribute()`
+     */
+    public static final String PUBLIC_KEY_ATTRIBUTE = "dotenvx.publicKey";
+    @Nullable
+    private final EciesPrivateKey privateKey;
+    @Nullable
+    private final DotenvxKeyring keyring;
+    @Nullable
+    private final DecryptedValueCache cache;
+    private final boolean annotatedOnly;
 
-    protected DotenvxGlobalJsonDeserializer(String privateKey) {
+    public DotenvxGlobalJsonDeserializer(String privateKey) {
+        this(new EciesPrivateKey(privateKey), 0, false);
+    }
+
+    /**
+     * create deserializer with prepared private key context
+     *
+     * @param privateKey    private key context
+     * @param cacheSize     max size of the ciphertext to plaintext LRU cache, and 0 to disable the cache
+     * @param annotatedOnly only decrypt properties annotated with {@link DotenvxEncrypted}, and other strings skip the prefix check
+     */
+    public DotenvxGlobalJsonDeserializer(EciesPrivateKey privateKey, int cacheSize, boolean annotatedOnly) {
+        this(privateKey, null, cacheSize, annotatedOnly);
+    }
+
+    /**
+     * create deserializer with keyring, and the private key is picked by the public key
+     * from the {@link #PUBLIC_KEY_ATTRIBUTE} attribute of the deserialization context
+     *
+     * @param keyring       keyring
+     * @param cacheSize     max size of the ciphertext to plaintext LRU cache, and 0 to disable the cache
+     * @param annotatedOnly only decrypt properties annotated with {@link DotenvxEncrypted}, and other strings skip the prefix check
+     */
+    public DotenvxGlobalJsonDeserializer(DotenvxKeyring keyring, int cacheSize, boolean annotatedOnly) {
+        this(null, keyring, cacheSize, annotatedOnly);
+    }
+
+    private DotenvxGlobalJsonDeserializer(@Nullable EciesPrivateKey privateKey, @Nullable DotenvxKeyring keyring,
+                                          int cacheSize, boolean annotatedOnly) {
         super(String.class);
         this.privateKey = privateKey;
+        this.keyring = keyring;
+        this.cache = cacheSize > 0 ? new DecryptedValueCache(cacheSize) : null;
+        this.annotatedOnly = annotatedOnly;
     }
 
     public String decryptData(String data) throws IOException {
+        if (privateKey == null) {
+            throw new IOException("No private key for decryption, please use keyring with " + PUBLIC_KEY_ATTRIBUTE + " attribute");
+        }
+        return decryptData(data, privateKey, data);
+    }
+
+    private String decryptData(String data, DeserializationContext deserializationContext) throws IOException {
+        if (keyring == null) {
+            return decryptData(data);
+        }
+        final Object publicKeyHex = deserializationContext.getAttribute(PUBLIC_KEY_ATTRIBUTE);
+        final EciesPrivateKey tenantPrivateKey = publicKeyHex != null ? keyring.get(publicKeyHex.toString()) : null;
+        if (tenantPrivateKey == null) {
+            throw new IOException("No private key found in keyring for public key: " + publicKeyHex);
+        }
+        // cache key includes the public key, so a value is never returned from the cache for another tenant's key
+        return decryptData(data, tenantPrivateKey, publicKeyHex + ":" + data);
+    }
+
+    private String decryptData(String data, EciesPrivateKey privateKey, String cacheKey) throws IOException {
+        if (cache != null) {
+            final String plaintext = cache.get(cacheKey);
+            if (plaintext != null) {
+                return plaintext;
+            }
+        }
         try {
-            return Ecies.decrypt(privateKey, data.substring(10));
+            final String plaintext = EciesCompression.decrypt(privateKey, data);
+            if (cache != null) {
+                cache.put(cacheKey, plaintext);
+            }
+            return plaintext;
         } catch (Exception e) {
-            throw new IOException("Failed to encrypt data", e);
+            throw new IOException("Failed to decrypt data", e);
+        }
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext deserializationContext, BeanProperty property) {
+        if (annotatedOnly && (property == null || property.getAnnotation(DotenvxEncrypted.class) == null)) {
+            return StringDeserializer.instance;
         }
+        return this;
     }
 
     @Override
     public String deserialize(JsonParser jp, DeserializationContext deserializationContext) throws IOException, JacksonException {
-        JsonNode node = jp.getCodec().readTree(jp);
-        String text = node.asText();
-        if (text != null && text.startsWith("encrypted:")) {
-            return decryptData(text);
+        final String text;
+        if (jp.hasToken(JsonToken.VALUE_STRING)) {
+            text = jp.getText();
+        } else {
+            JsonNode node = jp.getCodec().readTree(jp);
+            text = node.asText();
+        }
+        if (text != null && text.startsWith(EciesCompression.ENCRYPTED_PREFIX)) {
+            return decryptData(text, deserializationContext);
         } else {
             return text;
         }
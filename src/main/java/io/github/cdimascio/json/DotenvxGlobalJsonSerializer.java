@@ -1,38 +1,96 @@
 package io.github.cdimascio.json;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
-import io.github.cdimascio.ecies.Ecies;
+import com.fasterxml.jackson.databind.ser.std.StringSerializer;
+import io.github.cdimascio.ecies.EciesCompression;
+import io.github.cdimascio.ecies.EciesPublicKey;
 
 import java.io.IOException;
 
 /**
- * dotenvx json serializer for String prefixed with `private:`
+ * dotenvx json serializer for String prefixed with `private:` or annotated with {@link DotenvxEncrypted}
  *
  * @author linux_china
  */
-public class DotenvxGlobalJsonSerializer extends StdSerializer<String> {
-    private final String publicKey;
+public class DotenvxGlobalJsonSerializer extends StdSerializer<String> implements ContextualSerializer {
+    private static final long serialVersionUID = 1L;
+    private final EciesPublicKey publicKey;
+    private final boolean annotatedOnly;
+    private final boolean alwaysEncrypt;
+    private final int compressionThreshold;
     public static String prefix = "private:";
 
     public DotenvxGlobalJsonSerializer(String publicKey) {
+        this(new EciesPublicKey(publicKey), false);
+    }
+
+    /**
+     * create serializer with prepared public key context
+     *
+     * @param publicKey     public key context
+     * @param annotatedOnly only encrypt properties annotated with {@link DotenvxEncrypted}, and other strings skip the prefix check
+     */
+    public DotenvxGlobalJsonSerializer(EciesPublicKey publicKey, boolean annotatedOnly) {
+        this(publicKey, annotatedOnly, -1, false);
+    }
+
+    /**
+     * create serializer with compression of large strings
+     *
+     * @param publicKey            public key context
+     * @param annotatedOnly        only encrypt properties annotated with {@link DotenvxEncrypted}, and other strings skip the prefix check
+     * @param compressionThreshold strings of the threshold size in bytes or more are compressed and written as `encrypted:compressed:`, -1 to disable
+     */
+    public DotenvxGlobalJsonSerializer(EciesPublicKey publicKey, boolean annotatedOnly, int compressionThreshold) {
+        this(publicKey, annotatedOnly, compressionThreshold, false);
+    }
+
+    private DotenvxGlobalJsonSerializer(EciesPublicKey publicKey, boolean annotatedOnly, int compressionThreshold, boolean alwaysEncrypt) {
         super(String.class);
         this.publicKey = publicKey;
+        this.annotatedOnly = annotatedOnly;
+        this.compressionThreshold = compressionThreshold;
+        this.alwaysEncrypt = alwaysEncrypt;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider serializerProvider, BeanProperty property) {
+        if (property != null && property.getAnnotation(DotenvxEncrypted.class) != null) {
+            return alwaysEncrypt ? this : new DotenvxGlobalJsonSerializer(publicKey, annotatedOnly, compressionThreshold, true);
+        }
+        return annotatedOnly ? new StringSerializer() : this;
     }
 
     @Override
     public void serialize(String s, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
         if (s != null && s.startsWith(prefix)) {
-            jsonGenerator.writeString("encrypted:" + encryptData(s.substring(prefix.length())));
+            jsonGenerator.writeString(encryptValue(s.substring(prefix.length())));
+        } else if (s != null && alwaysEncrypt) {
+            jsonGenerator.writeString(encryptValue(s));
         } else {
             jsonGenerator.writeString(s);
         }
     }
 
+    private String encryptValue(String data) throws IOException {
+        if (compressionThreshold < 0) {
+            return "encrypted:" + encryptData(data);
+        }
+        try {
+            return EciesCompression.encrypt(publicKey, data, compressionThreshold);
+        } catch (Exception e) {
+            throw new IOException("Failed to encrypt data", e);
+        }
+    }
+
     public String encryptData(String data) throws IOException {
         try {
-            return Ecies.encrypt(publicKey, data);
+            return publicKey.encrypt(data);
         } catch (Exception e) {
             throw new IOException("Failed to encrypt data", e);
         }
@@ -0,0 +1,142 @@
+package io.github.cdimascio.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.cdimascio.dotenv.DotenvxKeyring;
+import io.github.cdimascio.ecies.EciesCompression;
+import io.github.cdimascio.ecies.EciesEphemeralKeyPool;
+import io.github.cdimascio.ecies.EciesPrivateKey;
+import io.github.cdimascio.ecies.EciesPublicKey;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Jackson module for dotenvx: registers {@link DotenvxGlobalJsonSerializer} and {@link DotenvxGlobalJsonDeserializer} for String,
+ * and the key material is parsed once and shared by all serializations of the mapper.
+ *
+ * <pre>{@code
+ * ObjectMapper objectMapper = JsonMapper.builder()
+ *         .addModule(new DotenvxJacksonModule(publicKeyHex, privateKeyHex).cacheSize(1024).annotatedOnly())
+ *         .build();
+ * }</pre>
+ *
+ * @author linux_china
+ */
+public class DotenvxJacksonModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+    @Nullable
+    private final EciesPublicKey publicKey;
+    @Nullable
+    private final EciesPrivateKey privateKey;
+    @Nullable
+    private final DotenvxKeyring keyring;
+    private int cacheSize = 0;
+    private boolean annotatedOnly = false;
+    @Nullable
+    private EciesEphemeralKeyPool ephemeralKeyPool;
+    private int compressionThreshold = -1;
+
+    /**
+     * create module
+     *
+     * @param publicKeyHex  public key in hex for serialization, null to skip serializer registration
+     * @param privateKeyHex private key in hex for deserialization, null to skip deserializer registration
+     */
+    public DotenvxJacksonModule(@Nullable String publicKeyHex, @Nullable String privateKeyHex) {
+        this(publicKeyHex != null ? new EciesPublicKey(publicKeyHex) : null,
+                privateKeyHex != null ? new EciesPrivateKey(privateKeyHex) : null);
+    }
+
+    /**
+     * create module with prepared key contexts
+     *
+     * @param publicKey  public key context for serialization, null to skip serializer registration
+     * @param privateKey private key context for deserialization, null to skip deserializer registration
+     */
+    public DotenvxJacksonModule(@Nullable EciesPublicKey publicKey, @Nullable EciesPrivateKey privateKey) {
+        this(publicKey, privateKey, null);
+    }
+
+    /**
+     * create module with keyring for multi-tenant deserialization, and the private key is picked by the public key from
+     * the {@link DotenvxGlobalJsonDeserializer#PUBLIC_KEY_ATTRIBUTE} attribute:
+     * {@code objectMapper.reader().withAttribute(DotenvxGlobalJsonDeserializer.PUBLIC_KEY_ATTRIBUTE, tenantPublicKey)}
+     *
+     * @param publicKey public key context for serialization, null to skip serializer registration
+     * @param keyring   keyring for deserialization
+     */
+    public DotenvxJacksonModule(@Nullable EciesPublicKey publicKey, DotenvxKeyring keyring) {
+        this(publicKey, null, keyring);
+    }
+
+    private DotenvxJacksonModule(@Nullable EciesPublicKey publicKey, @Nullable EciesPrivateKey privateKey, @Nullable DotenvxKeyring keyring) {
+        super("DotenvxJacksonModule");
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.keyring = keyring;
+    }
+
+    /**
+     * Enables the bounded cache of ciphertext to plaintext for repeated values, and cache reads don't lock.
+     *
+     * @param cacheSize max entries of the cache, 0 to disable
+     * @return this {@link DotenvxJacksonModule}
+     */
+    public DotenvxJacksonModule cacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    /**
+     * Only encrypts and decrypts properties annotated with {@link DotenvxEncrypted}, and other strings skip the prefix check.
+     *
+     * @return this {@link DotenvxJacksonModule}
+     */
+    public DotenvxJacksonModule annotatedOnly() {
+        this.annotatedOnly = true;
+        return this;
+    }
+
+    /**
+     * Takes ephemeral key pairs of the serializer from the pool, so EC key generation is off the serialization path.
+     *
+     * @param ephemeralKeyPool pool of pre-generated ephemeral key pairs
+     * @return this {@link DotenvxJacksonModule}
+     */
+    public DotenvxJacksonModule ephemeralKeyPool(EciesEphemeralKeyPool ephemeralKeyPool) {
+        this.ephemeralKeyPool = ephemeralKeyPool;
+        return this;
+    }
+
+    /**
+     * Compresses strings of {@link EciesCompression#DEFAULT_THRESHOLD} bytes or more before encryption, and writes them as `encrypted:compressed:`.
+     *
+     * @return this {@link DotenvxJacksonModule}
+     */
+    public DotenvxJacksonModule compress() {
+        return compress(EciesCompression.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Compresses strings of the threshold size or more before encryption, and writes them as `encrypted:compressed:`.
+     *
+     * @param threshold min size in bytes of the UTF-8 string to compress
+     * @return this {@link DotenvxJacksonModule}
+     */
+    public DotenvxJacksonModule compress(int threshold) {
+        this.compressionThreshold = threshold;
+        return this;
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        if (publicKey != null) {
+            final EciesPublicKey serializerKey = ephemeralKeyPool != null ? publicKey.ephemeralKeyPool(ephemeralKeyPool) : publicKey;
+            addSerializer(String.class, new DotenvxGlobalJsonSerializer(serializerKey, annotatedOnly, compressionThreshold));
+        }
+        if (privateKey != null) {
+            addDeserializer(String.class, new DotenvxGlobalJsonDeserializer(privateKey, cacheSize, annotatedOnly));
+        } else if (keyring != null) {
+            addDeserializer(String.class, new DotenvxGlobalJsonDeserializer(keyring, cacheSize, annotatedOnly));
+        }
+        super.setupModule(context);
+    }
+}
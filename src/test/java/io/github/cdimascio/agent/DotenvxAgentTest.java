@@ -0,0 +1,91 @@
+package io.github.cdimascio.agent;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import io.github.cdimascio.dotenv.DotenvException;
+import io.github.cdimascio.dotenv.Dotenvx;
+import io.github.cdimascio.dotenv.DotenvxKeyring;
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DotenvxAgentTest {
+
+    @Test
+    public void testLoadWithAgent(@TempDir Path tempDir) throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        String publicKey = keyPair.getPublicHex(true);
+        Files.writeString(tempDir.resolve(".env"), "DOTENV_PUBLIC_KEY=" + publicKey + "\n"
+                + "HELLO=encrypted:" + Ecies.encrypt(publicKey, "world") + "\n"
+                + "PASSWORD=encrypted:" + Ecies.encrypt(publicKey, "secret") + "\n"
+                + "NICK=jackie\n");
+        Path socket = tempDir.resolve("agent.sock");
+        final DotenvxAgent agent = new DotenvxAgent(socket, new DotenvxKeyring().add(keyPair.getPrivateHex())).start();
+        try {
+            Dotenv dotenv = Dotenvx.configure().directory(tempDir.toString()).agent(socket).load();
+            assertThat(dotenv.get("HELLO")).isEqualTo("world");
+            assertThat(dotenv.get("PASSWORD")).isEqualTo("secret");
+            assertThat(dotenv.get("NICK")).isEqualTo("jackie");
+            // unknown public key
+            DotenvxAgentClient client = new DotenvxAgentClient(socket);
+            String otherPublicKey = Ecies.generateEcKeyPair().getPublicHex(true);
+            assertThatThrownBy(() -> client.decrypt(otherPublicKey, List.of(Ecies.encrypt(otherPublicKey, "x"))))
+                    .isInstanceOf(DotenvException.class)
+                    .hasMessageContaining("No private key");
+            // the socket of a running agent is not replaced
+            assertThatThrownBy(() -> new DotenvxAgent(socket, new DotenvxKeyring()).start())
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("already listening");
+        } finally {
+            agent.close();
+        }
+        assertThat(socket).doesNotExist();
+    }
+
+    @Test
+    public void testSocketPathChecks(@TempDir Path tempDir) throws Exception {
+        // a stale socket without a listening agent is replaced
+        Path socket = tempDir.resolve("agent.sock");
+        try (ServerSocketChannel stale = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            stale.bind(UnixDomainSocketAddress.of(socket));
+            // a hung agent never replies
+            DotenvxAgentClient client = new DotenvxAgentClient(socket, Duration.ofSeconds(1), Duration.ofMillis(200));
+            assertThatThrownBy(() -> client.decrypt("02", List.of("x")))
+                    .isInstanceOf(DotenvException.class)
+                    .hasMessageContaining("timed out");
+        }
+        assertThat(socket).exists();
+        new DotenvxAgent(socket, new DotenvxKeyring()).start().close();
+        // other files are never deleted
+        Path file = Files.writeString(tempDir.resolve("agent.txt"), "keep me");
+        assertThatThrownBy(() -> new DotenvxAgent(file, new DotenvxKeyring()).start())
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not a socket");
+        assertThat(file).hasContent("keep me");
+        // the socket directory must be private
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path shared = Files.createDirectory(tempDir.resolve("shared"), PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxr-xr-x")));
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxr-xr-x"));
+        assertThatThrownBy(() -> new DotenvxAgent(shared.resolve("agent.sock"), new DotenvxKeyring()).start())
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("owner only");
+        Path created = tempDir.resolve("run/dotenvx/agent.sock");
+        new DotenvxAgent(created, new DotenvxKeyring()).start().close();
+        assertThat(Files.getPosixFilePermissions(created.getParent())).isEqualTo(PosixFilePermissions.fromString("rwx------"));
+    }
+}
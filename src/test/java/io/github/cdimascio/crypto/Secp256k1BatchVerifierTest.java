@@ -0,0 +1,33 @@
+package io.github.cdimascio.crypto;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Secp256k1BatchVerifierTest {
+
+    @Test
+    public void verifyAll() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        List<byte[]> payloads = new ArrayList<>();
+        List<byte[]> signatures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            byte[] payload = ("KEY_" + i + "=value" + i).getBytes(StandardCharsets.UTF_8);
+            payloads.add(payload);
+            signatures.add(Secp256k1Signer.signData(payload, keyPair.getPrivate()));
+        }
+        // tampered payload and malformed signature
+        payloads.set(3, "KEY_3=tampered".getBytes(StandardCharsets.UTF_8));
+        signatures.set(7, new byte[]{1, 2, 3});
+        final boolean[] results = new Secp256k1BatchVerifier(keyPair.getPublicHex(true)).verifyAll(payloads, signatures);
+        for (int i = 0; i < results.length; i++) {
+            assertThat(results[i]).isEqualTo(i != 3 && i != 7);
+        }
+    }
+}
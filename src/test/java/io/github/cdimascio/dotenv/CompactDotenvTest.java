@@ -0,0 +1,41 @@
+package io.github.cdimascio.dotenv;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactDotenvTest {
+
+    @Test
+    public void testSameAsDefaultDotenv(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".env"), "HELLO=world\nPATH=/tmp\nB=1\nA=2\nB=3\n");
+        Dotenv expected = Dotenvx.configure().directory(tempDir.toString()).load();
+        Dotenv compact = Dotenvx.configure().directory(tempDir.toString()).compact().load();
+        assertThat(compact.get("HELLO")).isEqualTo(expected.get("HELLO"));
+        assertThat(compact.get("B")).isEqualTo(expected.get("B")).isEqualTo("3");
+        assertThat(compact.get("PATH")).isEqualTo(expected.get("PATH"));
+        assertThat(compact.get("MISSING", "default")).isEqualTo("default");
+        assertThat(toMap(compact, null)).isEqualTo(toMap(expected, null));
+        assertThat(toMap(compact, Dotenv.Filter.DECLARED_IN_ENV_FILE)).isEqualTo(toMap(expected, Dotenv.Filter.DECLARED_IN_ENV_FILE));
+    }
+
+    @Test
+    public void testSharedKeys(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".env"), "TENANT_SECRET=a\n");
+        Dotenv first = Dotenvx.configure().directory(tempDir.toString()).compact().load();
+        Dotenv second = Dotenvx.configure().directory(tempDir.toString()).compact().load();
+        String firstKey = first.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE).iterator().next().getKey();
+        String secondKey = second.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE).iterator().next().getKey();
+        assertThat(firstKey).isSameAs(secondKey);
+    }
+
+    private static Map<String, String> toMap(Dotenv dotenv, Dotenv.Filter filter) {
+        return dotenv.entries(filter).stream().collect(Collectors.toMap(DotenvEntry::getKey, DotenvEntry::getValue));
+    }
+}
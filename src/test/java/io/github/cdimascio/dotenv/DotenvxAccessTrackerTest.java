@@ -0,0 +1,49 @@
+package io.github.cdimascio.dotenv;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxAccessTrackerTest {
+
+    @Test
+    public void testTrackDotenv(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".env"), "HELLO=world\nUNUSED=secret\n");
+        DotenvxAccessTracker tracker = new DotenvxAccessTracker();
+        Dotenv dotenv = Dotenvx.configure().directory(tempDir.toString()).trackAccess(tracker).load();
+        assertThat(dotenv.get("HELLO")).isEqualTo("world");
+        assertThat(dotenv.get("HELLO", "default")).isEqualTo("world");
+        DotenvxAccessTracker.KeyAccess access = tracker.snapshot().get("HELLO");
+        assertThat(access.count()).isEqualTo(2);
+        assertThat(access.firstAccessMillis()).isPositive().isLessThanOrEqualTo(access.lastAccessMillis());
+        assertThat(tracker.unusedKeys()).containsExactly("UNUSED");
+    }
+
+    @Test
+    public void testTrackPropertiesAndLoader(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("application.properties"), "hello=world\nunused=secret\n");
+        DotenvxAccessTracker tracker = new DotenvxAccessTracker();
+        Properties properties = new DotenvxPropertiesBuilder().directory(tempDir.toString()).trackAccess(tracker).load();
+        assertThat(properties.getProperty("hello", "default")).isEqualTo("world");
+        DemoRecordConfig config = new DotenvxLoader().accessTracker(tracker).path(file.toString()).load(DemoRecordConfig.class);
+        assertThat(config.hello()).isEqualTo("world");
+        assertThat(tracker.snapshot().get("hello").count()).isEqualTo(2);
+        assertThat(tracker.unusedKeys()).containsExactly("unused");
+        assertThat(tracker.export()).extracting(DotenvxAccessTracker.KeyAccess::key).containsExactly("hello", "unused");
+    }
+
+    @Test
+    public void testTrackLoaderDeclaredKeys(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve(".env"), "HELLO=world\nUNUSED=secret\n");
+        DotenvxAccessTracker tracker = new DotenvxAccessTracker();
+        DemoRecordConfig config = new DotenvxLoader().accessTracker(tracker).path(file.toString()).load(DemoRecordConfig.class);
+        assertThat(config.hello()).isEqualTo("world");
+        // environment variables merged into .env entries are not registered
+        assertThat(tracker.unusedKeys()).containsExactly("UNUSED");
+    }
+}
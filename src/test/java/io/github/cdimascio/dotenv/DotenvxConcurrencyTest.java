@@ -0,0 +1,93 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 50;
+
+    @Test
+    public void testSharedBuilder(@TempDir Path tempDir) throws Exception {
+        Path dir = createTenant(tempDir, "a");
+        DotenvxBuilder builder = Dotenvx.configure().directory(dir.toString());
+        List<String> values = runInParallel(() -> builder.load().get("HELLO"));
+        assertThat(values).hasSize(THREADS * ITERATIONS).containsOnly("a");
+    }
+
+    @Test
+    public void testBuilderAfterKeyRotation(@TempDir Path tempDir) throws Exception {
+        Path dir = createTenant(tempDir, "a");
+        DotenvxBuilder builder = Dotenvx.configure().directory(dir.toString());
+        assertThat(builder.load().get("HELLO")).isEqualTo("a");
+        String oldPrivateKey = Dotenvx.configure().directory(dir.toString()).filename(".env.keys").load().get("DOTENV_PRIVATE_KEY");
+        DotenvxKeyRotator.Result result = new DotenvxKeyRotator().privateKey(oldPrivateKey).rotate(dir.resolve(".env"));
+        Files.writeString(dir.resolve(".env.keys"), "DOTENV_PRIVATE_KEY=" + result.privateKeyHex() + "\n");
+        // the private key is resolved again, and not cached by the previous load
+        assertThat(builder.load().get("HELLO")).isEqualTo("a");
+    }
+
+    @Test
+    public void testSharedLoader(@TempDir Path tempDir) throws Exception {
+        String pathA = createTenant(tempDir, "a").resolve(".env").toString();
+        String pathB = createTenant(tempDir, "b").resolve(".env").toString();
+        DotenvxLoader loader = new DotenvxLoader();
+        AtomicInteger counter = new AtomicInteger();
+        List<String> values = runInParallel(() -> {
+            String tenant = counter.getAndIncrement() % 2 == 0 ? "a" : "b";
+            DemoRecordConfig config = loader.path(tenant.equals("a") ? pathA : pathB).load(DemoRecordConfig.class);
+            return tenant + "=" + config.hello();
+        });
+        assertThat(values).hasSize(THREADS * ITERATIONS).containsOnly("a=a", "b=b");
+    }
+
+    private static Path createTenant(Path tempDir, String tenant) throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        Path dir = Files.createDirectories(tempDir.resolve(tenant));
+        Files.writeString(dir.resolve(".env"), "DOTENV_PUBLIC_KEY=" + keyPair.getPublicHex(true) + "\n"
+                + "HELLO=encrypted:" + Ecies.encrypt(keyPair.getPublicHex(true), tenant) + "\n");
+        Files.writeString(dir.resolve(".env.keys"), "DOTENV_PRIVATE_KEY=" + keyPair.getPrivateHex() + "\n");
+        return dir;
+    }
+
+    private static List<String> runInParallel(Callable<String> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<String> values = new ArrayList<>();
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        values.add(task.call());
+                    }
+                    return values;
+                }));
+            }
+            start.countDown();
+            List<String> values = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                values.addAll(future.get());
+            }
+            return values;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.cdimascio.dotenv;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxIndexTest {
+
+    @Test
+    public void testEncryptedPositions() {
+        DotenvxIndex index = DotenvxIndex.forEnv(".env");
+        index.add("PLAIN", "text");
+        index.add("SECRET1", "encrypted:first");
+        index.add("DOTENV_PUBLIC_KEY", "02abc");
+        index.add("SECRET2", "encrypted:envelope:second");
+        // plaintext which looks like a format tag is not encrypted
+        index.add("NOTE", "envelope:plain");
+        index.add("COMMENT", "compressed:plain");
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.encryptedCount()).isEqualTo(2);
+        assertThat(index.encryptedTexts()).containsExactly("first", "envelope:second");
+        index.decrypt(String::toUpperCase);
+        assertThat(index.hasEncrypted()).isFalse();
+        assertThat(index.toMap()).containsExactly(
+                Map.entry("PLAIN", "text"),
+                Map.entry("SECRET1", "FIRST"),
+                Map.entry("DOTENV_PUBLIC_KEY", "02abc"),
+                Map.entry("SECRET2", "ENVELOPE:SECOND"),
+                Map.entry("NOTE", "envelope:plain"),
+                Map.entry("COMMENT", "compressed:plain"));
+    }
+
+    @Test
+    public void testPublicKeys() {
+        DotenvxIndex index = DotenvxIndex.forEnv(".env");
+        index.add("DOTENV_PUBLIC_KEY", "");
+        index.add("DOTENV_PUBLIC_KEY_PROD", "02prod");
+        index.add("DOTENV_PUBLIC_KEY_CI", "02ci");
+        assertThat(index.publicKeyHex()).isEqualTo("02prod");
+        assertThat(index.publicKeys()).containsOnlyKeys("DOTENV_PUBLIC_KEY_PROD", "DOTENV_PUBLIC_KEY_CI");
+        // public keys are recorded for filtered-out entries too
+        DotenvxIndex filtered = DotenvxIndex.forProperties("application.properties")
+                .keyFilter(DotenvxKeyFilter.prefix("app."));
+        filtered.add("dotenv.public.key", "02abc");
+        filtered.add("db.url", "jdbc:h2:mem");
+        assertThat(filtered.publicKeyHex()).isEqualTo("02abc");
+        assertThat(filtered.toMap()).isEmpty();
+    }
+
+    @Test
+    public void testProfileName() {
+        assertThat(DotenvxIndex.forEnv(".env").profileName()).isNull();
+        assertThat(DotenvxIndex.forEnv(".env.prod").profileName()).isEqualTo("prod");
+        assertThat(DotenvxIndex.forProperties("application.properties").profileName()).isNull();
+        assertThat(DotenvxIndex.forProperties("application-prod.properties").profileName()).isEqualTo("prod");
+    }
+}
@@ -1,15 +1,22 @@
 package io.github.cdimascio.dotenv;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.json.DotenvxEncrypted;
 import io.github.cdimascio.json.DotenvxGlobalJsonSerializer;
+import io.github.cdimascio.json.DotenvxJacksonModule;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 
 public class DotenvxJsonTest {
     private static ObjectMapper objectMapper = getDotenvxObjectMapper();
@@ -29,4 +36,39 @@ public class DotenvxJsonTest {
         final String jsonText = objectMapper.writeValueAsString(info);
         System.out.println(jsonText);
     }
+
+    @Test
+    public void testJacksonModule() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        ObjectMapper mapper = JsonMapper.builder()
+                .addModule(new DotenvxJacksonModule(keyPair.getPublicHex(true), keyPair.getPrivateHex()).cacheSize(16).annotatedOnly())
+                .build();
+        final String jsonText = mapper.writeValueAsString(new Account("Jackie", "demo@example.com"));
+        final Map<String, String> json = mapper.readValue(jsonText, new TypeReference<Map<String, String>>() {
+        });
+        assertThat(json.get("nick")).isEqualTo("Jackie");
+        assertThat(json.get("email")).startsWith("encrypted:");
+        assertThat(mapper.readValue(jsonText, Account.class)).isEqualTo(new Account("Jackie", "demo@example.com"));
+    }
+
+    @Test
+    public void testJacksonModuleCompression() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        ObjectMapper mapper = JsonMapper.builder()
+                .addModule(new DotenvxJacksonModule(keyPair.getPublicHex(true), keyPair.getPrivateHex()).annotatedOnly().compress(64))
+                .build();
+        final String largeEmail = "demo@example.com,".repeat(100);
+        final String jsonText = mapper.writeValueAsString(new Account("Jackie", largeEmail));
+        assertThat(mapper.readValue(jsonText, Map.class).get("email").toString()).startsWith("encrypted:compressed:");
+        assertThat(mapper.readValue(jsonText, Account.class).email()).isEqualTo(largeEmail);
+        // below the threshold
+        final String smallJsonText = mapper.writeValueAsString(new Account("Jackie", "demo@example.com"));
+        assertThat(mapper.readValue(smallJsonText, Map.class).get("email").toString()).startsWith("encrypted:").doesNotContain("compressed:");
+        // plaintext which looks like the format tag is not decrypted
+        assertThat(mapper.readValue("{\"nick\":\"Jackie\",\"email\":\"compressed:demo@example.com\"}", Account.class).email())
+                .isEqualTo("compressed:demo@example.com");
+    }
+
+    public record Account(String nick, @DotenvxEncrypted String email) {
+    }
 }
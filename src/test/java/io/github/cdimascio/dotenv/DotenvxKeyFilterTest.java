@@ -0,0 +1,60 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxKeyFilterTest {
+
+    @Test
+    public void testGlob() {
+        assertThat(DotenvxKeyFilter.glob("DB_*_URL").test("DB_PRIMARY_URL")).isTrue();
+        assertThat(DotenvxKeyFilter.glob("DB_*_URL").test("DB_PRIMARY_USER")).isFalse();
+        assertThat(DotenvxKeyFilter.glob("APP_?").test("APP_1")).isTrue();
+        assertThat(DotenvxKeyFilter.glob("*").test("")).isTrue();
+    }
+
+    @Test
+    public void testSelectiveLoading() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        // value of other service can't be decrypted with this key pair, so it must be skipped
+        String otherPublicKey = Ecies.generateEcKeyPair().getPublicHex(true);
+        String content = "DOTENV_PUBLIC_KEY=" + keyPair.getPublicHex(true) + "\n"
+                + "ORDER_DB_PASSWORD=encrypted:" + Ecies.encrypt(keyPair.getPublicHex(true), "secret") + "\n"
+                + "ORDER_LEGACY_URL=http://legacy\n"
+                + "PAYMENT_TOKEN=encrypted:" + Ecies.encrypt(otherPublicKey, "other") + "\n"
+                + "APP_NAME=demo\n";
+        Dotenv dotenv = Dotenvx.configure()
+                .privateKey(keyPair.getPrivateHex())
+                .include(DotenvxKeyFilter.prefix("ORDER_"))
+                .include(DotenvxKeyFilter.keys("APP_NAME"))
+                .exclude(DotenvxKeyFilter.glob("*_LEGACY_*"))
+                .systemProperties()
+                .load(content);
+        assertThat(dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE)).extracting(DotenvEntry::getKey)
+                .containsExactlyInAnyOrder("ORDER_DB_PASSWORD", "APP_NAME");
+        assertThat(dotenv.get("ORDER_DB_PASSWORD")).isEqualTo("secret");
+        assertThat(System.getProperty("PAYMENT_TOKEN")).isNull();
+        assertThat(System.getProperty("ORDER_DB_PASSWORD")).isEqualTo("secret");
+        System.clearProperty("ORDER_DB_PASSWORD");
+        System.clearProperty("APP_NAME");
+    }
+
+    @Test
+    public void testSelectivePropertiesLoading(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("application.properties"), "order.db.url=jdbc:h2:mem\npayment.token=\\u00zz\napp.name=demo\n");
+        Map<String, String> entries = new DotenvxPropertiesBuilder()
+                .directory(tempDir.toString())
+                .include(DotenvxKeyFilter.prefix("order."))
+                .loadAsMap();
+        // malformed value of the filtered-out entry is never decoded
+        assertThat(entries).containsExactly(Map.entry("order.db.url", "jdbc:h2:mem"));
+    }
+}
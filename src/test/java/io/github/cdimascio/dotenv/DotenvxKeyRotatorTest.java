@@ -0,0 +1,62 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DotenvxKeyRotatorTest {
+
+    @Test
+    public void testRotate(@TempDir Path tempDir) throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        String publicKey = keyPair.getPublicHex(true);
+        Path envFile = tempDir.resolve(".env");
+        Files.writeString(envFile, "#/-------------------[DOTENV_PUBLIC_KEY]--------------------/\n"
+                + "DOTENV_PUBLIC_KEY=\"" + publicKey + "\"\n\n"
+                + "# environment variables\n"
+                + "HELLO=\"encrypted:" + Ecies.encrypt(publicKey, "World") + "\"\n"
+                + "PLAIN=text # comment\n");
+        final DotenvxKeyRotator.Result result = new DotenvxKeyRotator()
+                .privateKey(keyPair.getPrivateHex())
+                .rotate(envFile);
+        assertThat(result.rotatedCount()).isEqualTo(1);
+        assertThat(result.privateKeyHex()).isNotNull();
+        final String content = Files.readString(envFile);
+        assertThat(content).contains("DOTENV_PUBLIC_KEY=\"" + result.publicKeyHex() + "\"\n\n# environment variables\n")
+                .contains("PLAIN=text # comment\n");
+        Dotenv dotenv = Dotenvx.configure()
+                .directory(tempDir.toString())
+                .privateKey(result.privateKeyHex())
+                .load();
+        assertThat(dotenv.get("HELLO")).isEqualTo("World");
+        assertThat(dotenv.get("PLAIN")).isEqualTo("text");
+    }
+
+    @Test
+    public void testKeepPermissionsAndSymlink(@TempDir Path tempDir) throws Exception {
+        assumeTrue(tempDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        Path realFile = Files.createDirectories(tempDir.resolve("shared")).resolve(".env");
+        Files.writeString(realFile, "DOTENV_PUBLIC_KEY=\"" + keyPair.getPublicHex(true) + "\"\n"
+                + "HELLO=\"encrypted:" + Ecies.encrypt(keyPair.getPublicHex(true), "World") + "\"\n");
+        Files.setPosixFilePermissions(realFile, PosixFilePermissions.fromString("rw-r--r--"));
+        Path envFile = Files.createSymbolicLink(tempDir.resolve(".env"), realFile);
+        final DotenvxKeyRotator.Result result = new DotenvxKeyRotator()
+                .privateKey(keyPair.getPrivateHex())
+                .rotate(envFile);
+        assertThat(Files.isSymbolicLink(envFile)).isTrue();
+        assertThat(Files.readString(realFile)).contains("DOTENV_PUBLIC_KEY=\"" + result.publicKeyHex() + "\"");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(realFile))).isEqualTo("rw-r--r--");
+        try (var files = Files.list(realFile.getParent())) {
+            assertThat(files).containsExactly(realFile);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.cdimascio.dotenv;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxKeyTrieTest {
+
+    public record PoolConfig(int maxSize, boolean enabled) {
+    }
+
+    public record DataSourceConfig(String url, PoolConfig pool) {
+    }
+
+    public record DbConfig(DataSourceConfig primary, Map<String, DataSourceConfig> replicas, Map<String, String> labels) {
+    }
+
+    public static class AppConfig {
+        private String appName;
+        private DbConfig db;
+    }
+
+    public static class LabelsConfig {
+        private HashMap<String, String> labels;
+        private TreeMap<String, String> tags;
+    }
+
+    @Test
+    public void testPrefixScan() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("DB_URL", "jdbc:h2:mem");
+        entries.put("DB_POOL_MAX_SIZE", "10");
+        entries.put("db.user", "admin");
+        entries.put("DBX", "other");
+        DotenvxKeyTrie trie = DotenvxKeyTrie.of(entries);
+        assertThat(trie.withPrefix("DB_")).containsOnlyKeys("DB_URL", "DB_POOL_MAX_SIZE", "db.user");
+        assertThat(trie.withPrefix("db.pool")).containsOnlyKeys("DB_POOL_MAX_SIZE");
+        assertThat(trie.get("db.pool.max-size")).isEqualTo("10");
+        assertThat(trie.subTrie("db").childNames()).containsExactly("pool", "url", "user");
+        assertThat(DotenvxKeyTrie.nameSegments("dbURLPath")).containsExactly("db", "url", "path");
+    }
+
+    @Test
+    public void testBindNestedConfig(@TempDir Path tempDir) throws Exception {
+        Path envFile = Files.writeString(tempDir.resolve(".env"), """
+                APP_NAME=demo
+                DB_PRIMARY_URL=jdbc:postgresql://primary/app
+                DB_PRIMARY_POOL_MAX_SIZE=20
+                DB_PRIMARY_POOL_ENABLED=true
+                DB_REPLICAS_EAST_URL=jdbc:postgresql://east/app
+                DB_REPLICAS_WEST_URL=jdbc:postgresql://west/app
+                DB_LABELS_TEAM=core
+                DB_LABELS_COST_CENTER=42
+                """);
+        DotenvxLoader loader = new DotenvxLoader().path(envFile.toString());
+        DbConfig db = loader.load("DB_", DbConfig.class);
+        assertThat(db.primary().url()).isEqualTo("jdbc:postgresql://primary/app");
+        assertThat(db.primary().pool()).isEqualTo(new PoolConfig(20, true));
+        assertThat(db.replicas()).containsOnlyKeys("east", "west");
+        assertThat(db.replicas().get("west").pool()).isNull();
+        assertThat(db.labels()).containsExactly(Map.entry("cost.center", "42"), Map.entry("team", "core"));
+        AppConfig app = loader.load(AppConfig.class);
+        assertThat(app.appName).isEqualTo("demo");
+        assertThat(app.db.replicas().get("east").url()).isEqualTo("jdbc:postgresql://east/app");
+        assertThat(loader.entries("db.replicas")).hasSize(2);
+    }
+
+    @Test
+    public void testBindPropertiesSection(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("application.properties"), """
+                db.primary.url=jdbc:mysql://primary/app
+                db.primary.pool.max-size=5
+                """);
+        DbConfig db = new DotenvxLoader().path(file.toString()).load("db", DbConfig.class);
+        assertThat(db.primary().pool().maxSize()).isEqualTo(5);
+        assertThat(db.replicas()).isNull();
+    }
+
+    @Test
+    public void testBindConcreteMapsFromSnapshot(@TempDir Path tempDir) throws Exception {
+        Path envFile = Files.writeString(tempDir.resolve(".env"), "LABELS_TEAM=core\nTAGS_ENV=prod\n");
+        DotenvxLoader loader = new DotenvxLoader().path(envFile.toString());
+        LabelsConfig config = loader.load(LabelsConfig.class);
+        assertThat(config.labels).containsOnly(Map.entry("team", "core"));
+        assertThat(config.tags).containsOnly(Map.entry("env", "prod"));
+        // the loader keeps the loaded snapshot, and a new loader reloads the file
+        Files.writeString(envFile, "LABELS_TEAM=ops\n");
+        Map<?, ?> labels = loader.load("labels", HashMap.class);
+        assertThat(labels.get("team")).isEqualTo("core");
+        assertThat(loader.path(envFile.toString()).entries("LABELS_")).containsEntry("LABELS_TEAM", "ops");
+    }
+}
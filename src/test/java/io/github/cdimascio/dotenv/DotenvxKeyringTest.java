@@ -0,0 +1,52 @@
+package io.github.cdimascio.dotenv;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.json.DotenvxGlobalJsonDeserializer;
+import io.github.cdimascio.json.DotenvxJacksonModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxKeyringTest {
+
+    @Test
+    public void testLoadWithKeyring(@TempDir Path tempDir) throws Exception {
+        DotenvxKeyring keyring = new DotenvxKeyring(1);
+        for (String tenant : new String[]{"a", "b"}) {
+            ECKeyPair keyPair = Ecies.generateEcKeyPair();
+            keyring.add(keyPair.getPrivateHex());
+            Path tenantDir = Files.createDirectories(tempDir.resolve(tenant));
+            Files.writeString(tenantDir.resolve(".env"), "DOTENV_PUBLIC_KEY=" + keyPair.getPublicHex(true) + "\n"
+                    + "TENANT=encrypted:" + Ecies.encrypt(keyPair.getPublicHex(true), tenant) + "\n");
+        }
+        assertThat(keyring.size()).isEqualTo(2);
+        for (String tenant : new String[]{"a", "b", "a"}) {
+            Dotenv dotenv = Dotenvx.configure()
+                    .directory(tempDir.resolve(tenant).toString())
+                    .keyring(keyring)
+                    .load();
+            assertThat(dotenv.get("TENANT")).isEqualTo(tenant);
+        }
+    }
+
+    @Test
+    public void testJsonWithKeyring() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        DotenvxKeyring keyring = new DotenvxKeyring().add(keyPair.getPrivateHex());
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new DotenvxJacksonModule(null, keyring))
+                .build();
+        String json = "\"encrypted:" + Ecies.encrypt(keyPair.getPublicHex(true), "secret") + "\"";
+        final String value = objectMapper.readerFor(String.class)
+                .withAttribute(DotenvxGlobalJsonDeserializer.PUBLIC_KEY_ATTRIBUTE, keyPair.getPublicHex(true))
+                .readValue(json);
+        assertThat(value).isEqualTo("secret");
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.cdimascio.dotenv;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxPrewarmTest {
+
+    @Test
+    public void testPrewarm() throws Exception {
+        CompletableFuture<Void> cancelled = Dotenvx.prewarm(20);
+        cancelled.cancel(true);
+        // the shared pre-warm is not cancelled by callers
+        CompletableFuture<Void> future = Dotenvx.prewarm();
+        assertThat(future).isNotSameAs(cancelled);
+        future.get(60, TimeUnit.SECONDS);
+        assertThat(future).isCompletedWithValue(null);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxPropertiesBuilderTest {
+
+    @Test
+    public void testSameSyntaxAsProperties(@TempDir Path tempDir) throws Exception {
+        String content = """
+                # comment
+                ! another comment
+                hello=World
+                  spaced.key  =  spaced value  \s
+                colon.key:colon value
+                blank.key value with blank separator
+                multi.line=first \\
+                    second \\
+                    third
+                escaped\\=key=tab\\tnew\\nline \\u0041
+                empty.key=
+                key.only
+                """;
+        Files.writeString(tempDir.resolve("application.properties"), content);
+        Properties expected = new Properties();
+        expected.load(new StringReader(content));
+        final Map<String, String> entries = new DotenvxPropertiesBuilder()
+                .directory(tempDir.toString())
+                .loadAsMap();
+        assertThat(entries).isEqualTo(expected);
+    }
+
+    @Test
+    public void testDecrypt(@TempDir Path tempDir) throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        String publicKey = keyPair.getPublicHex(true);
+        Files.writeString(tempDir.resolve("application.properties"), String.join("\n",
+                "plain=text",
+                "early.secret=encrypted:" + Ecies.encrypt(publicKey, "early"),
+                "dotenv.public.key=" + publicKey,
+                "secret=encrypted:" + Ecies.encrypt(publicKey, "World")));
+        final Properties properties = new DotenvxPropertiesBuilder()
+                .directory(tempDir.toString())
+                .privateKey(keyPair.getPrivateHex())
+                .load();
+        assertThat(properties.getProperty("plain")).isEqualTo("text");
+        assertThat(properties.getProperty("early.secret")).isEqualTo("early");
+        assertThat(properties.getProperty("secret")).isEqualTo("World");
+    }
+
+    @Test
+    public void testDuplicatedKeys(@TempDir Path tempDir) throws Exception {
+        // the stale encrypted value is replaced, so no private key is needed
+        Files.writeString(tempDir.resolve("application.properties"), "a=encrypted:stale\nb=text\na=plain\n");
+        assertThat(new DotenvxPropertiesBuilder().directory(tempDir.toString()).loadAsMap())
+                .containsExactly(Map.entry("a", "plain"), Map.entry("b", "text"));
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        Files.writeString(tempDir.resolve("application.properties"), "a=plain\na=encrypted:" + Ecies.encrypt(keyPair.getPublicHex(true), "secret"));
+        assertThat(new DotenvxPropertiesBuilder().directory(tempDir.toString()).privateKey(keyPair.getPrivateHex()).loadAsMap())
+                .containsExactly(Map.entry("a", "secret"));
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.crypto.Secp256k1Signer;
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.bouncycastle.util.encoders.Base64;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DotenvxSignatureTest {
+    private static final String SIGNER_PUBLIC_KEY = "02bb5d5af880374d22d30daa891d524c688f6c3c2a95f65ec9f5afc101759e65b0";
+
+    @Test
+    public void testVerifySignature(@TempDir Path tempDir) throws Exception {
+        ECKeyPair signer = Ecies.generateEcKeyPair();
+        byte[] content = "HELLO=World\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(tempDir.resolve(".env"), content);
+        Files.writeString(tempDir.resolve(".env.sig"), Base64.toBase64String(Secp256k1Signer.signData(content, signer.getPrivate())));
+        Dotenv dotenv = Dotenvx.configure()
+                .directory(tempDir.toString())
+                .verifySignature(signer.getPublicHex(true))
+                .load();
+        assertThat(dotenv.get("HELLO")).isEqualTo("World");
+        // tampered file
+        Files.writeString(tempDir.resolve(".env"), "HELLO=Tampered\n");
+        assertThatThrownBy(() -> Dotenvx.configure()
+                .directory(tempDir.toString())
+                .verifySignature(signer.getPublicHex(true))
+                .load()).isInstanceOf(DotenvException.class);
+    }
+
+    @Test
+    public void testVerifyPropertiesSignature(@TempDir Path tempDir) throws Exception {
+        ECKeyPair signer = Ecies.generateEcKeyPair();
+        byte[] content = "hello=World\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(tempDir.resolve("application.properties"), content);
+        String signature = Base64.toBase64String(Secp256k1Signer.signData(content, signer.getPrivate()));
+        final DotenvxPropertiesBuilder builder = new DotenvxPropertiesBuilder()
+                .directory(tempDir.toString())
+                .verifySignature(signer.getPublicHex(true), signature);
+        assertThat(builder.load().getProperty("hello")).isEqualTo("World");
+        Files.writeString(tempDir.resolve("application.properties"), "hello=Tampered\n");
+        assertThatThrownBy(builder::load).isInstanceOf(DotenvException.class);
+    }
+
+    @Test
+    public void testVerifyClasspathSignature() {
+        // signed.env and signed.properties are signed by the private key of SIGNER_PUBLIC_KEY
+        Dotenv dotenv = Dotenvx.configure()
+                .filename("classpath:signed.env")
+                .verifySignature(SIGNER_PUBLIC_KEY)
+                .load();
+        assertThat(dotenv.get("HELLO")).isEqualTo("Signed");
+        assertThat(new DotenvxPropertiesBuilder()
+                .filename("classpath:signed.properties")
+                .verifySignature(SIGNER_PUBLIC_KEY)
+                .load().getProperty("hello")).isEqualTo("Signed");
+        assertThatThrownBy(() -> Dotenvx.configure()
+                .filename("classpath:classpath.env")
+                .verifySignature(SIGNER_PUBLIC_KEY, signatureOf("classpath:signed.env"))
+                .load()).isInstanceOf(DotenvException.class);
+    }
+
+    private static String signatureOf(String name) throws Exception {
+        try (var input = DotenvxSignatureTest.class.getClassLoader().getResourceAsStream(name.substring("classpath:".length()) + ".sig")) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
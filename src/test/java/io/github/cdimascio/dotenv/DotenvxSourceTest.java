@@ -0,0 +1,49 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DotenvxSourceTest {
+
+    @Test
+    public void testLoadFromMemory() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        String content = "DOTENV_PUBLIC_KEY=" + keyPair.getPublicHex(true) + "\n"
+                + "HELLO=encrypted:" + Ecies.encrypt(keyPair.getPublicHex(true), "world") + "\n"
+                + "MULTI=\"line1\nline2\"\n";
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        DotenvxBuilder builder = Dotenvx.configure().privateKey(keyPair.getPrivateHex());
+        List<Dotenv> dotenvs = List.of(builder.load(content), builder.load(bytes),
+                builder.load(new ByteArrayInputStream(bytes)),
+                builder.load(Channels.newChannel(new ByteArrayInputStream(bytes))));
+        for (Dotenv dotenv : dotenvs) {
+            assertThat(dotenv.get("HELLO")).isEqualTo("world");
+            assertThat(dotenv.get("MULTI")).isEqualTo("line1\nline2");
+        }
+    }
+
+    @Test
+    public void testLoadFromClasspath() {
+        assertThat(Dotenvx.configure().filename("classpath:classpath.env").load().get("HELLO")).isEqualTo("classpath");
+        assertThatThrownBy(() -> Dotenvx.configure().filename("classpath:missing.env").load())
+                .isInstanceOf(DotenvException.class);
+        assertThat(Dotenvx.configure().filename("classpath:missing.env").ignoreIfMissing().load().get("HELLO")).isNull();
+    }
+
+    @Test
+    public void testLoadPropertiesFromInputStream() {
+        Map<String, String> entries = new DotenvxPropertiesBuilder()
+                .loadAsMap(new ByteArrayInputStream("app.name=demo\n".getBytes(StandardCharsets.ISO_8859_1)));
+        assertThat(entries).containsEntry("app.name", "demo");
+    }
+}
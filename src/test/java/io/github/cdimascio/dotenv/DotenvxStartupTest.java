@@ -0,0 +1,70 @@
+package io.github.cdimascio.dotenv;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup benchmark: loads a plaintext .env in a fresh JVM with class loading logs,
+ * then reports the count of loaded classes and time to first {@link Dotenv}.
+ */
+public class DotenvxStartupTest {
+
+    @Test
+    public void testPlaintextStartup(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".env"), "HELLO=world\nDB_URL=jdbc:h2:mem\n");
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final Process process = new ProcessBuilder(java, "-Xlog:class+load=info", "-cp", classPath(),
+                StartupMain.class.getName(), tempDir.toString())
+                .redirectErrorStream(true)
+                .start();
+        final List<String> loadedClasses = new ArrayList<>();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains("[class,load]")) {
+                    loadedClasses.add(line.substring(line.indexOf("[class,load]") + 13));
+                } else if (line.startsWith("HELLO=")) {
+                    result = line;
+                }
+            }
+        }
+        assertThat(process.waitFor(60, TimeUnit.SECONDS)).isTrue();
+        assertThat(result).startsWith("HELLO=world");
+        System.out.println("Loaded classes: " + loadedClasses.size() + ", " + result);
+        assertThat(loadedClasses).noneMatch(name -> name.startsWith("org.bouncycastle."));
+        assertThat(loadedClasses).noneMatch(name -> name.startsWith("com.fasterxml.jackson."));
+    }
+
+    private static String classPath() throws Exception {
+        final List<String> paths = new ArrayList<>();
+        paths.add(System.getProperty("java.class.path"));
+        for (Class<?> clazz : new Class<?>[]{StartupMain.class, Dotenvx.class, Dotenv.class,
+                org.bouncycastle.util.Arrays.class, com.fasterxml.jackson.databind.ObjectMapper.class}) {
+            paths.add(Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        }
+        return String.join(File.pathSeparator, paths);
+    }
+
+    public static class StartupMain {
+        public static void main(String[] args) {
+            final long start = System.nanoTime();
+            final Dotenv dotenv = Dotenvx.configure().directory(args[0]).load();
+            final long elapsed = System.nanoTime() - start;
+            System.out.println("HELLO=" + dotenv.get("HELLO") + ", time to first Dotenv: " + TimeUnit.NANOSECONDS.toMicros(elapsed) + "us");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.cdimascio.dotenv;
+
+import io.github.cdimascio.ecies.ECKeyPair;
+import io.github.cdimascio.ecies.Ecies;
+import io.github.cdimascio.ecies.EciesEnvelope;
+import org.bouncycastle.util.encoders.Base64;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DotenvxWriterTest {
+
+    @Test
+    public void testEncryptEnv(@TempDir Path tempDir) throws Exception {
+        Path envFile = tempDir.resolve(".env");
+        Files.writeString(envFile, "# database\nDB_USER=admin\nDB_PASSWORD=\"secret\" # keep me\n");
+        final DotenvxWriter.Result result = new DotenvxWriter()
+                .set("API_TOKEN", "token")
+                .write(envFile);
+        assertThat(result.encryptedCount()).isEqualTo(3);
+        final String content = Files.readString(envFile);
+        assertThat(content).startsWith("DOTENV_PUBLIC_KEY=\"" + result.publicKeyHex() + "\"\n# database\nDB_USER=encrypted:")
+                .contains("# keep me\n")
+                .contains("API_TOKEN=\"encrypted:");
+        Dotenv dotenv = Dotenvx.configure()
+                .directory(tempDir.toString())
+                .privateKey(result.privateKeyHex())
+                .load();
+        assertThat(dotenv.get("DB_USER")).isEqualTo("admin");
+        assertThat(dotenv.get("DB_PASSWORD")).isEqualTo("secret");
+        assertThat(dotenv.get("API_TOKEN")).isEqualTo("token");
+    }
+
+    @Test
+    public void testEncryptPropertiesKeys(@TempDir Path tempDir) throws Exception {
+        Path propertiesFile = tempDir.resolve("application.properties");
+        Files.writeString(propertiesFile, "app.name=demo\ndb.password=p\\u0040ss\n");
+        final DotenvxWriter.Result result = new DotenvxWriter()
+                .keys("db.password")
+                .write(propertiesFile);
+        assertThat(result.encryptedCount()).isEqualTo(1);
+        final Map<String, String> entries = new DotenvxPropertiesBuilder()
+                .directory(tempDir.toString())
+                .privateKey(result.privateKeyHex())
+                .loadAsMap();
+        assertThat(entries).containsEntry("app.name", "demo")
+                .containsEntry("db.password", "p@ss")
+                .containsEntry("dotenv.public.key", result.publicKeyHex());
+    }
+
+    @Test
+    public void testRejectInvalidEnvKey(@TempDir Path tempDir) throws Exception {
+        Path envFile = tempDir.resolve(".env");
+        Files.writeString(envFile, "DB_USER=admin\n");
+        assertThatThrownBy(() -> new DotenvxWriter().set("BAD KEY", "secret").write(envFile))
+                .isInstanceOf(DotenvException.class)
+                .hasMessageContaining("BAD KEY");
+        assertThatThrownBy(() -> new DotenvxWriter().set("", "secret")).isInstanceOf(DotenvException.class);
+        assertThat(Files.readString(envFile)).isEqualTo("DB_USER=admin\n");
+    }
+
+    @Test
+    public void testEscapePropertiesKey(@TempDir Path tempDir) throws Exception {
+        Path propertiesFile = tempDir.resolve("application.properties");
+        Files.writeString(propertiesFile, "app.name=demo\n");
+        final DotenvxWriter.Result result = new DotenvxWriter()
+                .set("a:b", "secret")
+                .set("first name", "J\u00fcrgen")
+                .set("\u540d\u5b57", "name")
+                .write(propertiesFile);
+        assertThat(Files.readString(propertiesFile)).contains("a\\:b=encrypted:").contains("first\\ name=encrypted:").contains("\\u540D\\u5B57=encrypted:");
+        // the escaped keys are found again, so setting them again doesn't append duplicates
+        new DotenvxWriter().set("a:b", "secret2").write(propertiesFile);
+        assertThat(Files.readString(propertiesFile).split("a\\\\:b=", -1)).hasSize(2);
+        final Map<String, String> entries = new DotenvxPropertiesBuilder()
+                .directory(tempDir.toString())
+                .privateKey(result.privateKeyHex())
+                .loadAsMap();
+        assertThat(entries).containsEntry("a:b", "secret2")
+                .containsEntry("first name", "J\u00fcrgen")
+                .containsEntry("\u540d\u5b57", "name")
+                .doesNotContainKey("a");
+    }
+
+    @Test
+    public void testEncryptEnvelope(@TempDir Path tempDir) throws Exception {
+        Path envFile = tempDir.resolve(".env");
+        Files.writeString(envFile, "DB_PASSWORD=secret\n");
+        ECKeyPair prod = Ecies.generateEcKeyPair();
+        final DotenvxWriter.Result result = new DotenvxWriter()
+                .recipients(prod.getPublicHex(true))
+                .write(envFile);
+        assertThat(Files.readString(envFile)).contains("DB_PASSWORD=encrypted:envelope:");
+        for (String privateKey : new String[]{result.privateKeyHex(), prod.getPrivateHex()}) {
+            Dotenv dotenv = Dotenvx.configure().directory(tempDir.toString()).privateKey(privateKey).load();
+            assertThat(dotenv.get("DB_PASSWORD")).isEqualTo("secret");
+        }
+        // rotation seals the value again with a fresh data key, and other recipients are kept
+        String envelope = Files.readString(envFile).replaceAll("(?s).*encrypted:envelope:([^\"\\s]+).*", "$1");
+        DotenvxKeyRotator.Result rotated = new DotenvxKeyRotator().privateKey(result.privateKeyHex()).rotate(envFile);
+        String rotatedEnvelope = Files.readString(envFile).replaceAll("(?s).*encrypted:envelope:([^\"\\s]+).*", "$1");
+        assertThat(EciesEnvelope.recipients(rotatedEnvelope)).containsExactly(rotated.publicKeyHex(), prod.getPublicHex(true));
+        // the payload is encrypted with a new data key, so the data key unwrapped by the old private key is useless
+        byte[] before = Base64.decode(envelope);
+        byte[] after = Base64.decode(rotatedEnvelope);
+        assertThat(Arrays.copyOfRange(after, after.length - 16, after.length)).isNotEqualTo(Arrays.copyOfRange(before, before.length - 16, before.length));
+        for (String privateKey : new String[]{rotated.privateKeyHex(), prod.getPrivateHex()}) {
+            Dotenv dotenv = Dotenvx.configure().directory(tempDir.toString()).privateKey(privateKey).load();
+            assertThat(dotenv.get("DB_PASSWORD")).isEqualTo("secret");
+        }
+    }
+
+    @Test
+    public void testEncryptCompressed(@TempDir Path tempDir) throws Exception {
+        Path envFile = tempDir.resolve(".env");
+        String serviceAccount = "{\"type\":\"service_account\",\"scopes\":[" + "\"https://www.googleapis.com/auth/cloud-platform\",".repeat(50) + "\"\"]}";
+        Files.writeString(envFile, "SERVICE_ACCOUNT=" + serviceAccount + "\nNICK=jackie\n");
+        final DotenvxWriter.Result result = new DotenvxWriter().compress(256).write(envFile);
+        final String content = Files.readString(envFile);
+        assertThat(content).contains("SERVICE_ACCOUNT=encrypted:compressed:").contains("NICK=encrypted:");
+        assertThat(content.length()).isLessThan(serviceAccount.length());
+        Dotenv dotenv = Dotenvx.configure().directory(tempDir.toString()).privateKey(result.privateKeyHex()).load();
+        assertThat(dotenv.get("SERVICE_ACCOUNT")).isEqualTo(serviceAccount);
+        assertThat(dotenv.get("NICK")).isEqualTo("jackie");
+    }
+
+    @Test
+    public void testEncryptMultiLineValues(@TempDir Path tempDir) throws Exception {
+        Path envFile = tempDir.resolve(".env");
+        Files.writeString(envFile, "CERT=\"-----BEGIN-----\r\nabc\r\n-----END-----\" # pem\r\nNICK=jackie\r\n");
+        final DotenvxWriter.Result result = new DotenvxWriter().write(envFile);
+        assertThat(result.encryptedCount()).isEqualTo(2);
+        assertThat(Files.readAllLines(envFile)).hasSize(3).noneMatch(line -> line.contains("abc") || line.contains("-----END-----"));
+        Dotenv dotenv = Dotenvx.configure().directory(tempDir.toString()).privateKey(result.privateKeyHex()).load();
+        assertThat(dotenv.get("CERT")).isEqualTo("-----BEGIN-----\nabc\n-----END-----");
+        assertThat(dotenv.get("NICK")).isEqualTo("jackie");
+        Path propertiesFile = tempDir.resolve("application.properties");
+        Files.writeString(propertiesFile, "k=first \\\n    second\nnick=jackie\n");
+        final DotenvxWriter.Result propertiesResult = new DotenvxWriter().write(propertiesFile);
+        assertThat(propertiesResult.encryptedCount()).isEqualTo(2);
+        final Map<String, String> entries = new DotenvxPropertiesBuilder()
+                .directory(tempDir.toString())
+                .privateKey(propertiesResult.privateKeyHex())
+                .loadAsMap();
+        assertThat(entries).containsOnlyKeys("dotenv.public.key", "k", "nick")
+                .containsEntry("k", "first second")
+                .containsEntry("nick", "jackie");
+    }
+}
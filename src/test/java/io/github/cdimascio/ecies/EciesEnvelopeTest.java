@@ -0,0 +1,35 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EciesEnvelopeTest {
+
+    @Test
+    public void testSealAndOpen() throws Exception {
+        ECKeyPair dev = Ecies.generateEcKeyPair();
+        ECKeyPair prod = Ecies.generateEcKeyPair();
+        ECKeyPair staging = Ecies.generateEcKeyPair();
+        String envelope = EciesEnvelope.seal("shared secret", List.of(new EciesPublicKey(dev.getPublicHex(true)),
+                new EciesPublicKey(prod.getPublicHex(true))));
+        assertThat(EciesEnvelope.recipients(envelope)).containsExactly(dev.getPublicHex(true), prod.getPublicHex(true));
+        assertThat(EciesEnvelope.open(envelope, new EciesPrivateKey(dev.getPrivateHex()))).isEqualTo("shared secret");
+        assertThat(EciesEnvelope.open(envelope, new EciesPrivateKey(prod.getPrivateHex()))).isEqualTo("shared secret");
+        EciesPrivateKey stagingKey = new EciesPrivateKey(staging.getPrivateHex());
+        assertThatThrownBy(() -> EciesEnvelope.open(envelope, stagingKey))
+                .isInstanceOf(InvalidCipherTextException.class);
+        // add staging without encrypting the message again, then remove dev
+        String added = EciesEnvelope.addRecipient(envelope, new EciesPrivateKey(prod.getPrivateHex()),
+                new EciesPublicKey(staging.getPublicHex(true)));
+        assertThat(EciesEnvelope.open(added, stagingKey)).isEqualTo("shared secret");
+        String removed = EciesEnvelope.removeRecipient(added, dev.getPublicHex(true));
+        assertThat(EciesEnvelope.recipients(removed)).containsExactly(prod.getPublicHex(true), staging.getPublicHex(true));
+        assertThatThrownBy(() -> EciesEnvelope.open(removed, new EciesPrivateKey(dev.getPrivateHex())))
+                .isInstanceOf(InvalidCipherTextException.class);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EciesEphemeralKeyPoolTest {
+
+    @Test
+    public void testEncryptWithPool() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        EciesPrivateKey privateKey = new EciesPrivateKey(keyPair.getPrivateHex());
+        try (EciesEphemeralKeyPool pool = new EciesEphemeralKeyPool(16)) {
+            EciesPublicKey publicKey = new EciesPublicKey(keyPair.getPublicHex(true)).ephemeralKeyPool(pool);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (pool.available() < pool.capacity() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Set<String> ephemeralKeys = new HashSet<>();
+            for (int i = 0; i < 64; i++) {
+                byte[] encrypted = publicKey.encrypt(("value-" + i).getBytes());
+                // single-use: every encryption has a distinct ephemeral public key
+                assertThat(ephemeralKeys.add(Hex.toHexString(encrypted, 0, 65))).isTrue();
+                assertThat(new String(privateKey.decrypt(encrypted))).isEqualTo("value-" + i);
+            }
+            assertThat(pool.hits() + pool.misses()).isEqualTo(64);
+            assertThat(pool.hits()).isGreaterThanOrEqualTo(16);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EciesGlvScalarTest {
+
+    @Test
+    public void testMultiplyMatchesGeneric() {
+        SecureRandom random = new SecureRandom();
+        BigInteger n = EciesCurve.DOMAIN.getN();
+        for (int i = 0; i < 200; i++) {
+            BigInteger d = new BigInteger(256, random).mod(n.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+            ECPoint point = EciesCurve.DOMAIN.getG().multiply(new BigInteger(256, random).mod(n).add(BigInteger.ONE));
+            ECPoint decoded = EciesCurve.CURVE.decodePoint(point.getEncoded(false));
+            assertThat(new EciesGlvScalar(d).multiply(decoded)).isEqualTo(decoded.multiply(d).normalize());
+        }
+        BigInteger max = n.subtract(BigInteger.ONE);
+        ECPoint g = EciesCurve.DOMAIN.getG();
+        assertThat(new EciesGlvScalar(max).multiply(g)).isEqualTo(g.negate().normalize());
+        assertThat(new EciesGlvScalar(BigInteger.ONE).multiply(g)).isEqualTo(g.normalize());
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.cdimascio.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Base64;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EciesStreamsTest {
+
+    @Test
+    public void testStreamRoundTrip() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        EciesPublicKey publicKey = new EciesPublicKey(keyPair.getPublicHex(true));
+        EciesPrivateKey privateKey = new EciesPrivateKey(keyPair.getPrivateHex());
+        byte[] message = randomBytes(100_003);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        publicKey.encrypt(new ByteArrayInputStream(message), encrypted);
+        // same layout as the byte[] API
+        assertThat(privateKey.decrypt(encrypted.toByteArray())).isEqualTo(message);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        privateKey.decrypt(new ByteArrayInputStream(publicKey.encrypt(message)), decrypted);
+        assertThat(decrypted.toByteArray()).isEqualTo(message);
+    }
+
+    @Test
+    public void testBase64RoundTrip() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        EciesPrivateKey privateKey = new EciesPrivateKey(keyPair.getPrivateHex());
+        byte[] message = randomBytes(20_000);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        new EciesPublicKey(keyPair.getPublicHex(true)).encryptBase64(new ByteArrayInputStream(message), encrypted);
+        assertThat(privateKey.decrypt(Base64.decode(encrypted.toByteArray()))).isEqualTo(message);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        privateKey.decryptBase64(new ByteArrayInputStream(encrypted.toByteArray()), decrypted);
+        assertThat(decrypted.toByteArray()).isEqualTo(message);
+    }
+
+    @Test
+    public void testSeekableChannel(@TempDir Path tempDir) throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        byte[] message = randomBytes(50_000);
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), message);
+        Path encryptedFile = tempDir.resolve("plain.bin.enc");
+        try (FileChannel in = FileChannel.open(plainFile);
+             FileChannel out = FileChannel.open(encryptedFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            new EciesPublicKey(keyPair.getPublicHex(true)).encrypt(in, out);
+        }
+        assertThat(Ecies.decrypt(keyPair.getPrivateBinary(), Files.readAllBytes(encryptedFile))).isEqualTo(message);
+    }
+
+    @Test
+    public void testTamperedCipherText() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        byte[] encrypted = new EciesPublicKey(keyPair.getPublicHex(true)).encrypt(randomBytes(1000));
+        encrypted[encrypted.length - 1] ^= 1;
+        assertThatThrownBy(() -> new EciesPrivateKey(keyPair.getPrivateHex())
+                .decrypt(new ByteArrayInputStream(encrypted), new ByteArrayOutputStream()))
+                .isInstanceOf(InvalidCipherTextException.class);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.cdimascio.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DecryptedValueCacheTest {
+    private static final int THREADS = 8;
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        DecryptedValueCache cache = new DecryptedValueCache(64);
+        for (int i = 0; i < 32; i++) {
+            cache.put("c" + i, "p" + i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int hits = 0;
+                    for (int i = 0; i < 100_000; i++) {
+                        if (("p" + (i % 32)).equals(cache.get("c" + (i % 32)))) {
+                            hits++;
+                        }
+                        // writers evict entries concurrently
+                        if (i % 1000 == 0) {
+                            cache.put("t" + thread + "-" + i, "v");
+                        }
+                    }
+                    return hits;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                assertThat(future.get()).isPositive();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        DecryptedValueCache cache = new DecryptedValueCache(4);
+        for (int i = 0; i < 4; i++) {
+            cache.put("c" + i, "p" + i);
+        }
+        Thread.sleep(5);
+        cache.get("c0");
+        cache.put("c4", "p4");
+        assertThat(cache.size()).isEqualTo(4);
+        // all entries fit in one sample, so the least recently used entry is evicted
+        assertThat(cache.get("c0")).isEqualTo("p0");
+        assertThat(cache.get("c4")).isEqualTo("p4");
+    }
+}